@@ -51,6 +51,11 @@ dependencies {
 
     // Misc
     runtimeDownload(libs.caffeine)
+
+    // Test
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
 }
 
 val mainPackage = "$group.carbonjapanizer"
@@ -92,6 +97,9 @@ configurations {
     compileOnly {
         extendsFrom(configurations.runtimeDownload.get())
     }
+    testImplementation {
+        extendsFrom(configurations.compileOnly.get())
+    }
 }
 
 tasks {
@@ -99,6 +107,10 @@ tasks {
         options.compilerArgs.add("-parameters")
     }
 
+    test {
+        useJUnitPlatform()
+    }
+
     shadowJar {
         archiveBaseName = velocityPluginJson.name
         archiveClassifier = null as String?
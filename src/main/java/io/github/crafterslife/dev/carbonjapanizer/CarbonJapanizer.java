@@ -22,15 +22,25 @@ package io.github.crafterslife.dev.carbonjapanizer;
 import com.zaxxer.hikari.HikariDataSource;
 import io.github.crafterslife.dev.carbonjapanizer.command.CommandManagerFactory;
 import io.github.crafterslife.dev.carbonjapanizer.command.commands.JapanizeCommand;
+import io.github.crafterslife.dev.carbonjapanizer.command.commands.StatsCommand;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.condition.ConvertCondition;
 import io.github.crafterslife.dev.carbonjapanizer.conversion.config.ForceReplacementConfigFactory;
 import io.github.crafterslife.dev.carbonjapanizer.conversion.config.HiraganaReplacementConfigFactory;
-import io.github.crafterslife.dev.carbonjapanizer.conversion.config.KanjiReplacementConfigFactory;
 import io.github.crafterslife.dev.carbonjapanizer.conversion.config.PreventReplacementConfigFactory;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.AdaptiveConcurrencyLimiter;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.CircuitBreaker;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.HotPhraseStore;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.KanaKanjiConverter;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.KanjiConversionCache;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.KanjiConversionService;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.LoadShedder;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.PersistentConversionCache;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.PhraseCache;
 import io.github.crafterslife.dev.carbonjapanizer.conversion.renderer.JapanizedComponentFormatter;
 import io.github.crafterslife.dev.carbonjapanizer.conversion.renderer.RomanComponentJapanizer;
 import io.github.crafterslife.dev.carbonjapanizer.database.DataSourceFactory;
+import io.github.crafterslife.dev.carbonjapanizer.database.DatabaseConcurrencyLimiter;
 import io.github.crafterslife.dev.carbonjapanizer.database.JdbiFactory;
-import io.github.crafterslife.dev.carbonjapanizer.database.entity.CarbonJapanizerUser;
 import io.github.crafterslife.dev.carbonjapanizer.event.CarbonChatHandler;
 import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.ConfigFactory;
 import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
@@ -52,6 +62,7 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.util.UTF8ResourceBundleControl;
 import org.jdbi.v3.core.Jdbi;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 /**
  * {@code CarbonJapanizer} のリソースやロジックをまとめたコンテナ
@@ -60,8 +71,14 @@ import org.jspecify.annotations.NullMarked;
 public final class CarbonJapanizer {
 
     private final UserMessage translationService;
+    private final DatabaseConcurrencyLimiter databaseLimiter;
     private final UserService userService;
     private final JapanizeService japanizeService;
+    private final KanaKanjiConverter kanaKanjiConverter;
+    private final KanjiConversionCache kanjiCache;
+    private final KanjiConversionService kanjiConversionService;
+    private final @Nullable PersistentConversionCache persistentConversionCache;
+    private final @Nullable HotPhraseStore hotPhraseStore;
 
     /**
      * このクラスのインスタンスを生成する。
@@ -88,15 +105,42 @@ public final class CarbonJapanizer {
         // ユーザーサービス
         final HikariDataSource dataSource = new DataSourceFactory(primaryConfig, loggingService, dataDirectory).create();
         final Jdbi jdbi = JdbiFactory.create(dataSource);
-        this.userService = new UserService(primaryConfig, loggingService, jdbi);
+        this.databaseLimiter = new DatabaseConcurrencyLimiter(primaryConfig.database(), dataSource.getMaximumPoolSize());
+        this.userService = new UserService(primaryConfig, loggingService, jdbi, this.databaseLimiter);
 
         // かな漢字変換サービス
+        final var concurrencyLimiter = new AdaptiveConcurrencyLimiter(primaryConfig.kanjiConversion().concurrencyLimit());
+        this.kanaKanjiConverter = KanaKanjiConverter.create(primaryConfig.kanjiConversion(), dataDirectory, loggingService, concurrencyLimiter);
+        this.persistentConversionCache = primaryConfig.kanjiConversion().persistentCache()
+                ? new PersistentConversionCache(primaryConfig.kanjiConversion(), loggingService, jdbi, this.databaseLimiter)
+                : null;
+        this.kanjiCache = new KanjiConversionCache(primaryConfig.kanjiConversion(), this.persistentConversionCache);
+        this.hotPhraseStore = primaryConfig.kanjiConversion().hotPhrasesSize() > 0
+                ? new HotPhraseStore(primaryConfig.kanjiConversion(), loggingService, dataDirectory, this.kanjiCache)
+                : null;
+        this.kanjiConversionService = new KanjiConversionService(
+                primaryConfig.kanjiConversion(),
+                loggingService,
+                this.kanaKanjiConverter,
+                this.kanjiCache,
+                new PhraseCache(primaryConfig.kanjiConversion()),
+                concurrencyLimiter,
+                new CircuitBreaker(primaryConfig.kanjiConversion(), loggingService),
+                new LoadShedder(primaryConfig.kanjiConversion(), loggingService)
+        );
+        final var convertCondition = ConvertCondition.create(primaryConfig);
+        if (convertCondition.custom()) {
+            loggingService.convertConditionCustom(primaryConfig.convertCondition().pattern());
+        } else {
+            loggingService.convertConditionBuiltin();
+        }
         final var componentJapanizer = new RomanComponentJapanizer(
                 primaryConfig,
+                convertCondition,
                 new PreventReplacementConfigFactory(primaryConfig).create(),
                 new ForceReplacementConfigFactory(primaryConfig).create(),
-                new HiraganaReplacementConfigFactory().create(),
-                new KanjiReplacementConfigFactory(loggingService).create()
+                new HiraganaReplacementConfigFactory().createTransliterator(),
+                this.kanjiConversionService
         );
         final var componentFormatter = new JapanizedComponentFormatter(primaryConfig, MiniMessage.miniMessage());
         this.japanizeService = new JapanizeService(this.userService, componentJapanizer, componentFormatter);
@@ -109,7 +153,10 @@ public final class CarbonJapanizer {
      */
     public void registerCommands(final CommandManagerFactory commandManagerFactory) {
         final var manager = commandManagerFactory.create(this.userService);
-        final var commands = Set.of(new JapanizeCommand(this.userService, this.translationService));
+        final var commands = Set.of(
+                new JapanizeCommand(this.userService, this.translationService),
+                new StatsCommand(this.kanjiCache, this.kanjiConversionService, this.kanaKanjiConverter, this.userService, this.translationService)
+        );
         commands.stream()
                 .map(command -> command.create(manager))
                 .forEach(manager::command);
@@ -128,10 +175,52 @@ public final class CarbonJapanizer {
     /**
      * ログインしたプレイヤーを操作する。
      *
+     * <p>ユーザーデータを読み込み、チャットの前にキャッシュへ用意する。
+     * 返される {@link CompletableFuture} は設定した上限時間内に必ず正常に完了する。</p>
+     *
      * @param uuid 対象ユーザーのUUID
-     * @return CompletableFuture
+     * @return 読み込みを待ち終えたときに完了する {@link CompletableFuture}
+     */
+    public CompletableFuture<Void> handleLogin(final UUID uuid) {
+        return this.userService.preloadUser(uuid);
+    }
+
+    /**
+     * プラグインの有効化時点ですでにオンラインのプレイヤーを操作する。
+     *
+     * <p>再読み込みなどでログインイベントを経ずにオンラインになっているプレイヤーのユーザーデータを、
+     * まとめてキャッシュへ用意する。呼び出し元はブロックしない。</p>
+     *
+     * @param uuids オンラインのプレイヤーのUUID
+     * @return 読み込みを終えたときに完了する {@link CompletableFuture}
+     */
+    public CompletableFuture<Void> handleOnlinePlayers(final Collection<UUID> uuids) {
+        return this.userService.preloadUsers(uuids);
+    }
+
+    /**
+     * ログアウトしたプレイヤーを操作する。
+     *
+     * @param uuid 対象ユーザーのUUID
+     */
+    public void handleQuit(final UUID uuid) {
+        this.userService.markOffline(uuid);
+        this.userService.invalidateFromCache(uuid);
+    }
+
+    /**
+     * プラグインの終了時にリソースを解放する。
      */
-    public CompletableFuture<CarbonJapanizerUser> handleLogin(final UUID uuid) {
-        return this.userService.loadUser(uuid);
+    public void shutdown() {
+        this.userService.close();
+        this.kanjiConversionService.close();
+        this.kanaKanjiConverter.close();
+        if (this.hotPhraseStore != null) {
+            this.hotPhraseStore.close();
+        }
+        if (this.persistentConversionCache != null) {
+            this.persistentConversionCache.close();
+        }
+        this.databaseLimiter.close();
     }
 }
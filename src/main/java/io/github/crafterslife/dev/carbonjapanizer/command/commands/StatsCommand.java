@@ -0,0 +1,199 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.command.commands;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.github.crafterslife.dev.carbonjapanizer.command.Commander;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.AdaptiveConcurrencyLimiter;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.CircuitBreaker;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.HedgingKanaKanjiConverter;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.KanaKanjiConverter;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.KanjiConversionCache;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.KanjiConversionService;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.LoadShedder;
+import io.github.crafterslife.dev.carbonjapanizer.database.DatabaseConcurrencyLimiter;
+import io.github.crafterslife.dev.carbonjapanizer.permission.CarbonJapanizerPermissions;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.UserMessage;
+import io.github.crafterslife.dev.carbonjapanizer.service.UserService;
+import java.util.Locale;
+import org.incendo.cloud.Command;
+import org.incendo.cloud.CommandManager;
+import org.incendo.cloud.parser.standard.EnumParser;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 管理者がプラグインの内部統計を確認するためのコマンド
+ */
+@NullMarked
+public final class StatsCommand implements CarbonJapanizerCommand {
+
+    private final KanjiConversionCache kanjiCache;
+    private final KanjiConversionService conversionService;
+    private final KanaKanjiConverter converter;
+    private final UserService userService;
+    private final UserMessage messages;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param kanjiCache        漢字変換キャッシュ
+     * @param conversionService 漢字変換サービス
+     * @param converter         漢字変換のバックエンド
+     * @param userService       ユーザーサービス
+     * @param messages          メッセージサービス
+     */
+    public StatsCommand(
+            final KanjiConversionCache kanjiCache,
+            final KanjiConversionService conversionService,
+            final KanaKanjiConverter converter,
+            final UserService userService,
+            final UserMessage messages
+    ) {
+        this.kanjiCache = kanjiCache;
+        this.conversionService = conversionService;
+        this.converter = converter;
+        this.userService = userService;
+        this.messages = messages;
+    }
+
+    @Override
+    public Command<Commander> create(final CommandManager<Commander> commandManager) {
+        return commandManager.commandBuilder("carbonjapanizer", "cj")
+                .literal("stats")
+                .permission(CarbonJapanizerPermissions.COMMAND_STATS)
+                .required("target", EnumParser.enumParser(Target.class))
+                .handler(context -> {
+                    final var sender = context.sender();
+                    final Target target = context.get("target");
+                    switch (target) {
+                        case KANJI_CACHE -> {
+                            final CacheStats stats = this.kanjiCache.stats();
+                            this.messages.kanjiCacheStats(
+                                    this.kanjiCache.estimatedSize(),
+                                    stats.hitCount(),
+                                    stats.missCount(),
+                                    StatsCommand.percent(stats.hitRate()),
+                                    stats.evictionCount(),
+                                    this.kanjiCache.persistentHitCount()
+                            ).send(sender);
+                        }
+                        case CONVERSION -> {
+                            final long conversions = this.conversionService.conversionCount();
+                            final long composed = this.conversionService.composedCount();
+                            this.messages.conversionStats(
+                                    conversions,
+                                    this.conversionService.deadlineMissCount(),
+                                    this.conversionService.coalescedCount(),
+                                    composed,
+                                    StatsCommand.percent(conversions == 0 ? 0 : (double) composed / conversions)
+                            ).send(sender);
+                        }
+                        case CONCURRENCY -> {
+                            final AdaptiveConcurrencyLimiter limiter = this.conversionService.concurrencyLimiter();
+                            this.messages.concurrencyStats(
+                                    limiter.limit(),
+                                    limiter.inFlight(),
+                                    limiter.queueDepth(),
+                                    limiter.rejectedCount()
+                            ).send(sender);
+                        }
+                        case HEDGING -> {
+                            if (this.converter instanceof HedgingKanaKanjiConverter hedging) {
+                                this.messages.hedgingStats(
+                                        hedging.hedgeDelayMillis(),
+                                        hedging.hedgedCount(),
+                                        hedging.hedgeWinCount()
+                                ).send(sender);
+                            } else {
+                                this.messages.hedgingDisabled().send(sender);
+                            }
+                        }
+                        case CIRCUIT_BREAKER -> {
+                            final CircuitBreaker circuitBreaker = this.conversionService.circuitBreaker();
+                            this.messages.circuitBreakerStats(
+                                    circuitBreaker.state().name(),
+                                    circuitBreaker.consecutiveFailures(),
+                                    circuitBreaker.retryInMillis(),
+                                    circuitBreaker.openCount(),
+                                    circuitBreaker.rejectedCount()
+                            ).send(sender);
+                        }
+                        case LOAD_SHEDDING -> {
+                            final LoadShedder loadShedder = this.conversionService.loadShedder();
+                            this.messages.loadSheddingStats(
+                                    loadShedder.mode().name(),
+                                    loadShedder.averageLatencyMillis()
+                            ).send(sender);
+                        }
+                        case DATABASE -> {
+                            final DatabaseConcurrencyLimiter limiter = this.userService.databaseLimiter();
+                            this.messages.databaseStats(
+                                    limiter.limit(),
+                                    limiter.inFlight(),
+                                    limiter.queueDepth(),
+                                    limiter.queueSize(),
+                                    String.format(Locale.ROOT, "%.1f", limiter.averageWaitMillis()),
+                                    limiter.maxWaitMillis(),
+                                    limiter.executedCount(),
+                                    limiter.rejectedCount(),
+                                    limiter.timedOutCount()
+                            ).send(sender);
+                        }
+                        case USER_CACHE -> {
+                            final long storedHits = this.userService.storedHitCount();
+                            final long missingHits = this.userService.missingHitCount();
+                            final long missCount = this.userService.missCount();
+                            final long lookups = storedHits + missingHits + missCount;
+                            this.messages.userCacheStats(
+                                    this.userService.cachedUserCount(),
+                                    this.userService.maximumCacheSize(),
+                                    this.userService.onlineUserCount(),
+                                    storedHits,
+                                    StatsCommand.percent(lookups == 0 ? 0 : (double) storedHits / lookups),
+                                    missingHits,
+                                    StatsCommand.percent(lookups == 0 ? 0 : (double) missingHits / lookups),
+                                    missCount,
+                                    this.userService.cacheStats().evictionCount(),
+                                    this.userService.fallbackCount()
+                            ).send(sender);
+                        }
+                    }
+                })
+                .build();
+    }
+
+    private static String percent(final double ratio) {
+        return String.format(Locale.ROOT, "%.1f%%", ratio * 100);
+    }
+
+    /**
+     * 統計を確認する対象。
+     */
+    public enum Target {
+        KANJI_CACHE,
+        CONVERSION,
+        CONCURRENCY,
+        HEDGING,
+        CIRCUIT_BREAKER,
+        LOAD_SHEDDING,
+        USER_CACHE,
+        DATABASE
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.condition;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.util.regex.Pattern;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 送信メッセージに対してかな漢字変換を試行するかどうかを判定する条件。
+ */
+@NullMarked
+public sealed interface ConvertCondition permits RomajiSyllableClassifier, PatternConvertCondition {
+
+    /**
+     * 設定に応じた判定条件を生成する。
+     *
+     * <p>{@code convertCondition} が初期値から変更されていない場合は、同じ判定を一度の走査で行う
+     * {@link RomajiSyllableClassifier} を返す。管理者が正規表現を変更している場合に限り
+     * {@link PatternConvertCondition} を返す。</p>
+     *
+     * @param primaryConfig メイン設定
+     * @return 判定条件
+     */
+    static ConvertCondition create(final PrimaryConfig primaryConfig) {
+        final Pattern pattern = primaryConfig.convertCondition();
+        if (pattern.flags() == 0 && PrimaryConfig.DEFAULT_CONVERT_CONDITION.equals(pattern.pattern())) {
+            return RomajiSyllableClassifier.create();
+        }
+
+        return new PatternConvertCondition(pattern);
+    }
+
+    /**
+     * メッセージがかな漢字変換の条件を満たしているか判定する。
+     *
+     * @param message プレーンテキストのメッセージ
+     * @return 条件を満たしている場合はtrue
+     */
+    boolean matches(String message);
+
+    /**
+     * 管理者が設定した正規表現による判定かどうか。
+     *
+     * @return 正規表現による判定の場合はtrue、組み込みの判定器の場合はfalse
+     */
+    boolean custom();
+}
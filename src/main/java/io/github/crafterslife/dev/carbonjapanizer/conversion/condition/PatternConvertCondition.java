@@ -0,0 +1,42 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.condition;
+
+import java.util.regex.Pattern;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 管理者が設定した正規表現による判定条件。
+ *
+ * @param pattern メッセージ全体に合致させる正規表現
+ */
+@NullMarked
+public record PatternConvertCondition(Pattern pattern) implements ConvertCondition {
+
+    @Override
+    public boolean matches(final String message) {
+        return this.pattern.matcher(message).matches();
+    }
+
+    @Override
+    public boolean custom() {
+        return true;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.condition;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * メッセージがローマ字表記かどうかを一度の走査で判定する組み込みの判定器。
+ *
+ * <p>{@link io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig#DEFAULT_CONVERT_CONDITION}
+ * と同じ判定を、正規表現のバックトラックなしで行う。</p>
+ *
+ * <ol>
+ *     <li>タブ、改行、ひらがな、カタカナ、漢字のいずれかを含むメッセージは即座に除外する。</li>
+ *     <li>メッセージの先頭から音節を読み進め、3音節以上連続するかどうかを判定する。
+ *     各音節の終端位置の集合を状態として遷移させるため、判定に必要な文字数は高々9文字に限られる。</li>
+ * </ol>
+ */
+@NullMarked
+public final class RomajiSyllableClassifier implements ConvertCondition {
+
+    private static final String[] SYLLABLES = {
+        "a", "i", "u", "e", "o",
+        "ka", "ki", "ku", "ke", "ko", "sa", "shi", "su", "se", "so", "ta", "chi", "tsu", "te", "to",
+        "na", "ni", "nu", "ne", "no", "ha", "hi", "fu", "he", "ho", "ma", "mi", "mu", "me", "mo",
+        "ya", "yu", "yo", "ra", "ri", "ru", "re", "ro", "wa", "wo",
+        "ga", "gi", "gu", "ge", "go", "za", "ji", "zu", "ze", "zo", "da", "de", "do",
+        "ba", "bi", "bu", "be", "bo", "pa", "pi", "pu", "pe", "po",
+        "kya", "kyu", "kyo", "sha", "shu", "sho", "cha", "chu", "cho", "nya", "nyu", "nyo",
+        "hya", "hyu", "hyo", "mya", "myu", "myo", "rya", "ryu", "ryo", "gya", "gyu", "gyo",
+        "ja", "ju", "jo", "bya", "byu", "byo", "pya", "pyu", "pyo",
+    };
+    private static final String DOUBLING_CONSONANTS = "ckstnhmyrwgzjdbp";
+    private static final String SYLLABIC_N_BLOCKERS = "aiueoyn";
+    private static final int MIN_SYLLABLES = 3;
+    private static final int NEXT_LINE = 0x0085;
+    private static final int LINE_SEPARATOR = 0x2028;
+    private static final int PARAGRAPH_SEPARATOR = 0x2029;
+
+    private static final RomajiSyllableClassifier INSTANCE = new RomajiSyllableClassifier();
+
+    private final Node root = new Node();
+
+    private RomajiSyllableClassifier() {
+        for (final String syllable : SYLLABLES) {
+            Node node = this.root;
+            for (int i = 0; i < syllable.length(); i++) {
+                node = node.childOrCreate(syllable.charAt(i));
+            }
+            node.terminal = true;
+        }
+    }
+
+    /**
+     * このクラスのインスタンスを取得する。
+     *
+     * @return このクラスのインスタンス
+     */
+    public static RomajiSyllableClassifier create() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean matches(final String message) {
+
+        // 日本語の文字や改行を含むメッセージは音節を数えるまでもなく除外する
+        int index = 0;
+        while (index < message.length()) {
+            final int codePoint = message.codePointAt(index);
+            if (RomajiSyllableClassifier.rejects(codePoint)) {
+                return false;
+            }
+            index += Character.charCount(codePoint);
+        }
+
+        // n音節目の終端になり得る位置の集合をビットで保持し、3音節分遷移させる
+        int reachable = 1;
+        for (int count = 0; count < MIN_SYLLABLES; count++) {
+            int next = 0;
+            for (int position = 0; reachable >>> position != 0; position++) {
+                if ((reachable & (1 << position)) != 0) {
+                    next |= this.syllableEnds(message, position);
+                }
+            }
+            if (next == 0) {
+                return false;
+            }
+            reachable = next;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean custom() {
+        return false;
+    }
+
+    /**
+     * 指定位置から始まる音節の終端位置をビットの集合で返す。
+     */
+    private int syllableEnds(final String message, final int position) {
+        final int length = message.length();
+        if (position >= length) {
+            return 0;
+        }
+
+        int ends = 0;
+        @Nullable Node node = this.root;
+        for (int i = position; i < length && i < position + 3; i++) {
+            node = node.child(message.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.terminal) {
+                ends |= 1 << (i + 1);
+            }
+        }
+
+        final char first = message.charAt(position);
+        if (first == 'n' && (position + 1 == length || SYLLABIC_N_BLOCKERS.indexOf(message.charAt(position + 1)) < 0)) {
+            ends |= 1 << (position + 1);
+        }
+        if (position + 1 < length && first == message.charAt(position + 1) && DOUBLING_CONSONANTS.indexOf(first) >= 0) {
+            ends |= 1 << (position + 2);
+        }
+
+        return ends;
+    }
+
+    private static boolean rejects(final int codePoint) {
+        switch (codePoint) {
+            case '\t', '\n', '\r', NEXT_LINE, LINE_SEPARATOR, PARAGRAPH_SEPARATOR -> {
+                return true;
+            }
+            default -> {
+                final Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+                return script == Character.UnicodeScript.HIRAGANA
+                        || script == Character.UnicodeScript.KATAKANA
+                        || script == Character.UnicodeScript.HAN;
+            }
+        }
+    }
+
+    /**
+     * 音節のトライ木のノード。音節は英小文字のみで構成される。
+     */
+    private static final class Node {
+
+        private final @Nullable Node[] children = new Node[26];
+        private boolean terminal;
+
+        private @Nullable Node child(final char label) {
+            return label >= 'a' && label <= 'z' ? this.children[label - 'a'] : null;
+        }
+
+        private Node childOrCreate(final char label) {
+            final @Nullable Node child = this.children[label - 'a'];
+            if (child != null) {
+                return child;
+            }
+
+            final Node created = new Node();
+            this.children[label - 'a'] = created;
+            return created;
+        }
+    }
+}
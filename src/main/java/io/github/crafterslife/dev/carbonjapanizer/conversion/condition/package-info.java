@@ -0,0 +1,4 @@
+/**
+ * かな漢字変換を試行するかどうかを判定する条件
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.condition;
@@ -19,21 +19,19 @@
  */
 package io.github.crafterslife.dev.carbonjapanizer.conversion.config;
 
+import io.github.crafterslife.dev.carbonjapanizer.conversion.transliterator.RomajiTransliterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import net.kyori.adventure.text.TextReplacementConfig;
 import org.jspecify.annotations.NullMarked;
 
 /**
  * {@link net.kyori.adventure.text.Component} 内のローマ字をひらがなに変換するための
- * {@link TextReplacementConfig} を生成するためのファクトリクラス。
+ * {@link RomajiTransliterator} を生成するためのファクトリクラス。
  */
 // Based on LunaChat design: https://github.com/ucchyocean/LunaChat/blob/master/src/main/java/com/github/ucchyocean/lc3/japanize/YukiKanaConverter.java
 @NullMarked
-public final class HiraganaReplacementConfigFactory implements TextReplacementConfigFactory {
+public final class HiraganaReplacementConfigFactory {
 
     /**
      * このクラスのインスタンスを生成する。
@@ -41,35 +39,13 @@ public final class HiraganaReplacementConfigFactory implements TextReplacementCo
     public HiraganaReplacementConfigFactory() {
     }
 
-    @Override
-    public TextReplacementConfig create() {
-        final Map<String, String> romajis = HiraganaReplacementConfigFactory.defaultRomajiMap();
-        final Pattern romajiPattern = romajis.keySet().stream()
-                .sorted((s1, s2) -> s2.length() - s1.length()) // キーを文字数の降順でソートする
-                .map(this::formatRegex)
-                .collect(Collectors.joining("|"))
-                .transform(Pattern::compile);
-
-        return TextReplacementConfig.builder()
-                .match(romajiPattern)
-                .replacement((matchResult, builder) -> {
-                    final String input = matchResult.group();
-                    final String hiragana = romajis.get(input);
-                    return builder.content(hiragana);
-                })
-                .build();
-    }
-
-    private String formatRegex(final String string) {
-        final StringBuilder escaped = new StringBuilder();
-        final String specialChars = ".^$*+?{}[]\\|()";
-        for (final char c : string.toCharArray()) {
-            if (specialChars.indexOf(c) != -1) {
-                escaped.append('\\');
-            }
-            escaped.append(c);
-        }
-        return escaped.toString();
+    /**
+     * このファクトリのローマ字表を使用する {@link RomajiTransliterator} を生成する。
+     *
+     * @return {@link RomajiTransliterator} のインスタンス
+     */
+    public RomajiTransliterator createTransliterator() {
+        return RomajiTransliterator.create(HiraganaReplacementConfigFactory.defaultRomajiMap());
     }
 
     /**
@@ -0,0 +1,223 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 変換サーバーへ同時に送信するリクエストの数を、応答時間と失敗に応じて調整する制限器。
+ *
+ * <p>AIMD (加算増加・乗算減少) によって上限を調整する。応答が閾値より速く成功した場合は上限を少しずつ増やし、
+ * 失敗した場合や応答が閾値より遅い場合は上限を一定の比率で減らす。</p>
+ *
+ * <p>上限に達している場合は小さな待ち行列で空きを待つ。待ち行列も埋まっている場合や、
+ * 待ち時間が上限を超えた場合は送信を諦める。</p>
+ */
+@NullMarked
+public final class AdaptiveConcurrencyLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final long latencyThresholdNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings 同時リクエスト数の制限設定
+     */
+    public AdaptiveConcurrencyLimiter(final PrimaryConfig.ConcurrencyLimitSettings settings) {
+        this.minLimit = settings.minLimit();
+        this.maxLimit = settings.maxLimit();
+        this.backoffRatio = settings.backoffRatio();
+        this.queueSize = settings.queueSize();
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.queueTimeoutMillis());
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.latencyThresholdMillis());
+        this.limit = Math.clamp(settings.initialLimit(), this.minLimit, this.maxLimit);
+    }
+
+    /**
+     * リクエストの送信枠を取得する。
+     *
+     * <p>{@code true} が返された場合、呼び出し元は {@link #release(long, boolean)} または {@link #cancel()} で
+     * 必ず枠を返却しなければならない。</p>
+     *
+     * @return 枠を取得できた場合は {@code true}。待ち行列が埋まっている場合や待ち時間を超えた場合は {@code false}
+     * @throws InterruptedException 待機中に割り込まれた場合
+     */
+    public boolean acquire() throws InterruptedException {
+        this.lock.lock();
+        try {
+            if (this.inFlight < this.currentLimit()) {
+                this.inFlight++;
+                return true;
+            }
+            if (this.waiting >= this.queueSize) {
+                this.rejected.increment();
+                return false;
+            }
+
+            this.waiting++;
+            try {
+                long remaining = this.queueTimeoutNanos;
+                while (this.inFlight >= this.currentLimit()) {
+                    if (remaining <= 0) {
+                        this.rejected.increment();
+                        return false;
+                    }
+                    remaining = this.released.awaitNanos(remaining);
+                }
+                this.inFlight++;
+                return true;
+            } finally {
+                this.waiting--;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 待たずに取得できる場合に限り、リクエストの送信枠を取得する。
+     *
+     * <p>空きを待っているリクエストがある場合は、その順番を追い越さないよう取得しない。
+     * 取得できなかった場合も、送信されなかったリクエストとしては数えない。
+     * {@code true} が返された場合の返却の義務は {@link #acquire()} と同じである。</p>
+     *
+     * @return 枠を取得できた場合は {@code true}
+     */
+    public boolean tryAcquire() {
+        this.lock.lock();
+        try {
+            if (this.waiting > 0 || this.inFlight >= this.currentLimit()) {
+                return false;
+            }
+            this.inFlight++;
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * リクエストの送信枠を返却し、結果に応じて上限を調整する。
+     *
+     * @param latencyNanos 応答までにかかった時間 (ナノ秒)
+     * @param success      リクエストが成功した場合は {@code true}
+     */
+    public void release(final long latencyNanos, final boolean success) {
+        this.lock.lock();
+        try {
+            final boolean saturated = this.inFlight * 2 >= this.currentLimit();
+            this.inFlight--;
+            if (!success || latencyNanos > this.latencyThresholdNanos) {
+                this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+            } else if (saturated) {
+                // 上限の半分以上を使っているときだけ増やし、閑散時に上限が際限なく増えることを防ぐ
+                this.limit = Math.min(this.maxLimit, this.limit + 1 / this.limit);
+            }
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * リクエストを送信せずに送信枠を返却する。上限は調整しない。
+     */
+    public void cancel() {
+        this.lock.lock();
+        try {
+            this.inFlight--;
+            this.released.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) this.limit;
+    }
+
+    /**
+     * 現在の同時リクエスト数の上限。
+     *
+     * @return 同時リクエスト数の上限
+     */
+    public int limit() {
+        this.lock.lock();
+        try {
+            return this.currentLimit();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 送信中のリクエストの数。
+     *
+     * @return 送信中のリクエストの数
+     */
+    public int inFlight() {
+        this.lock.lock();
+        try {
+            return this.inFlight;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 空きを待っているリクエストの数。
+     *
+     * @return 待ち行列の長さ
+     */
+    public int queueDepth() {
+        this.lock.lock();
+        try {
+            return this.waiting;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 上限を超えたため送信されなかったリクエストの回数。
+     *
+     * @return 送信されなかったリクエストの回数
+     */
+    public long rejectedCount() {
+        return this.rejected.sum();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 変換サーバーへのリクエストを遮断するサーキットブレーカー。
+ *
+ * <p>連続した失敗が閾値に達すると {@link State#OPEN} に遷移し、待機時間が経過するまでリクエストを遮断する。
+ * 待機時間の経過後は {@link State#HALF_OPEN} として一つのリクエストだけを試行し、
+ * 成功すれば {@link State#CLOSED} に戻り、失敗すれば待機時間を倍にして再び遮断する。</p>
+ */
+@NullMarked
+public final class CircuitBreaker {
+
+    private final LoggingService logger;
+    private final int failureThreshold;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures;
+    private long openNanos;
+    private long openUntil;
+    private long openCount;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings ひらがなから漢字への変換設定
+     * @param logger   状態の遷移を記録するロギングサービス
+     */
+    public CircuitBreaker(final PrimaryConfig.KanjiConversionSettings settings, final LoggingService logger) {
+        this.logger = logger;
+        this.failureThreshold = settings.circuitBreakerFailureThreshold();
+        this.baseOpenNanos = TimeUnit.MILLISECONDS.toNanos(settings.circuitBreakerOpenMillis());
+        this.maxOpenNanos = TimeUnit.MILLISECONDS.toNanos(settings.circuitBreakerMaxOpenMillis());
+        this.openNanos = this.baseOpenNanos;
+    }
+
+    /**
+     * リクエストの送信が許可されているかを確認する。
+     *
+     * <p>{@code true} が返された場合、呼び出し元は結果を {@link #onSuccess()}、{@link #onFailure()}
+     * または {@link #onCancel()} で必ず報告しなければならない。</p>
+     *
+     * @return 送信してよい場合は {@code true}
+     */
+    public boolean tryAcquire() {
+        if (this.state == State.CLOSED) {
+            return true;
+        }
+
+        synchronized (this) {
+            if (this.state == State.OPEN && System.nanoTime() - this.openUntil >= 0) {
+                this.state = State.HALF_OPEN;
+                return true;
+            }
+            if (this.state == State.CLOSED) {
+                return true;
+            }
+        }
+
+        this.rejected.increment();
+        return false;
+    }
+
+    /**
+     * リクエストの成功を報告する。
+     */
+    public void onSuccess() {
+        if (this.state == State.CLOSED && this.consecutiveFailures == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            final boolean recovered = this.state != State.CLOSED;
+            this.state = State.CLOSED;
+            this.consecutiveFailures = 0;
+            this.openNanos = this.baseOpenNanos;
+            if (recovered) {
+                this.logger.kanjiCircuitClosed();
+            }
+        }
+    }
+
+    /**
+     * リクエストの失敗を報告する。
+     */
+    public void onFailure() {
+        synchronized (this) {
+            this.consecutiveFailures++;
+
+            // 遮断前に送信されたリクエストの失敗は待機時間を延長しない
+            if (this.state == State.HALF_OPEN) {
+                this.openNanos = Math.min(this.openNanos * 2, this.maxOpenNanos);
+                this.open();
+            } else if (this.state == State.CLOSED && this.consecutiveFailures >= this.failureThreshold) {
+                this.open();
+            }
+        }
+    }
+
+    /**
+     * 結果を得ずにリクエストを取りやめたことを報告する。
+     *
+     * <p>連続失敗の回数は変更しない。試行中のリクエストだった場合は、待機時間を延長せずに遮断の状態へ戻し、
+     * 次のリクエストで改めて試行させる。</p>
+     */
+    public void onCancel() {
+        synchronized (this) {
+            if (this.state == State.HALF_OPEN) {
+                this.state = State.OPEN;
+            }
+        }
+    }
+
+    private void open() {
+        this.state = State.OPEN;
+        this.openUntil = System.nanoTime() + this.openNanos;
+        this.openCount++;
+        this.logger.kanjiCircuitOpened(this.consecutiveFailures, TimeUnit.NANOSECONDS.toMillis(this.openNanos));
+    }
+
+    /**
+     * 現在の状態。
+     *
+     * @return 現在の状態
+     */
+    public State state() {
+        return this.state;
+    }
+
+    /**
+     * 連続して失敗した回数。
+     *
+     * @return 連続して失敗した回数
+     */
+    public int consecutiveFailures() {
+        return this.consecutiveFailures;
+    }
+
+    /**
+     * 次にリクエストを試行できるまでの残り時間。
+     *
+     * @return 残り時間 (ミリ秒)。遮断していない場合は {@code 0}
+     */
+    public synchronized long retryInMillis() {
+        if (this.state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(this.openUntil - System.nanoTime()));
+    }
+
+    /**
+     * 遮断した回数。
+     *
+     * @return 遮断した回数
+     */
+    public synchronized long openCount() {
+        return this.openCount;
+    }
+
+    /**
+     * 遮断によって送信されなかったリクエストの回数。
+     *
+     * @return 送信されなかったリクエストの回数
+     */
+    public long rejectedCount() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * サーキットブレーカーの状態。
+     */
+    public enum State {
+        /**
+         * リクエストを送信する。
+         */
+        CLOSED,
+        /**
+         * リクエストを遮断する。
+         */
+        OPEN,
+        /**
+         * 回復を確認するため、一つのリクエストだけを送信する。
+         */
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * {@link KanaKanjiConverter} による変換結果。
+ *
+ * @param segments 変換対象の文節と同じ件数の変換結果
+ * @param phrases  バックエンドが分割した文節ごとの読みと変換結果。分割の情報がない場合は空
+ */
+@NullMarked
+public record ConversionResult(List<String> segments, List<Phrase> phrases) {
+
+    /**
+     * 文節の読みと変換結果。
+     *
+     * @param reading 読み
+     * @param kanji   変換結果
+     */
+    public record Phrase(String reading, String kanji) {
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import com.google.gson.stream.JsonReader;
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Google CGI API for Japanese Input を使用するバックエンド。
+ *
+ * <p>HTTP/2によって一つの接続で複数のリクエストを多重化する。
+ * 複数の文節は {@code ,} で区切って一度のリクエストで送信する。</p>
+ *
+ * <p>送信先は設定で変更でき、同じ形式で応答する他のサーバーへも送信できる。</p>
+ *
+ * @see <a href="https://www.google.co.jp/ime/cgiapi.html">Google CGI APi for Japanese Input</a>
+ */
+@NullMarked
+final class GoogleKanaKanjiConverter extends HttpKanaKanjiConverter {
+
+    private static final String QUERY = "?langpair=ja-Hira%7Cja&text=";
+    private static final String SEGMENT_SEPARATOR = ",";
+
+    private final String url;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings Google CGI API の設定
+     */
+    GoogleKanaKanjiConverter(final PrimaryConfig.GoogleBackendSettings settings) {
+        super(
+                HttpClient.Version.HTTP_2,
+                settings.connectTimeoutMillis(),
+                settings.requestTimeoutMillis(),
+                settings.maxConcurrentRequests()
+        );
+        this.url = settings.url();
+    }
+
+    @Override
+    HttpRequest.Builder request(final List<String> segments) {
+        final String text = String.join(SEGMENT_SEPARATOR, segments);
+        return HttpRequest.newBuilder()
+                .uri(URI.create(this.url + QUERY + URLEncoder.encode(text, StandardCharsets.UTF_8)))
+                .GET();
+    }
+
+    @Override
+    ConversionResult parse(final List<String> segments, final Reader reader) throws IOException {
+        final List<ConversionResult.Phrase> phrases = GoogleKanaKanjiConverter.parseJson(reader);
+        return new ConversionResult(GoogleKanaKanjiConverter.joinPhrases(segments, phrases), phrases);
+    }
+
+    /**
+     * 応答の各文節の第一候補を、変換対象の文節ごとに連結する。
+     *
+     * <p>応答の文節がどの変換対象の文節に属するかは、読みの長さから求める。</p>
+     *
+     * @param segments 変換対象の文節
+     * @param phrases  応答の文節
+     * @return {@code segments} と同じ件数の変換結果
+     * @throws IOException 応答の文節の読みが変換対象の文節と一致しない場合
+     */
+    private static List<String> joinPhrases(final List<String> segments, final List<ConversionResult.Phrase> phrases) throws IOException {
+        if (segments.size() == 1) {
+            final StringBuilder result = new StringBuilder();
+            phrases.forEach(phrase -> result.append(phrase.kanji()));
+            return List.of(result.toString());
+        }
+
+        final List<String> result = new ArrayList<>(segments.size());
+        int index = 0;
+        for (final String segment : segments) {
+            final StringBuilder converted = new StringBuilder();
+            int remaining = segment.length();
+            while (remaining > 0 && index < phrases.size()) {
+                final ConversionResult.Phrase phrase = phrases.get(index++);
+                converted.append(phrase.kanji());
+                remaining -= phrase.reading().length();
+            }
+
+            if (remaining != 0) {
+                throw new IOException("Phrases do not match the requested segments: " + segments);
+            }
+            result.add(converted.toString());
+        }
+        return result;
+    }
+
+    /**
+     * 変換結果のJSONを先頭から読み進め、各文節の読みと第一候補を取得する。
+     *
+     * <p>応答は {@code [["読み", ["候補1", "候補2", ...]], ...]} の形式で返される。
+     * 応答全体を木構造に展開せず、ストリームのまま読み取る。</p>
+     *
+     * @param reader 応答の本文
+     * @return 各文節の読みと第一候補。区切り文字そのものが文節として返された場合は含めない
+     * @throws IOException 応答の形式が不正な場合
+     */
+    private static List<ConversionResult.Phrase> parseJson(final Reader reader) throws IOException {
+        final List<ConversionResult.Phrase> result = new ArrayList<>();
+        try (JsonReader json = new JsonReader(reader)) {
+            json.beginArray();
+            while (json.hasNext()) {
+                json.beginArray();
+                final String reading = json.nextString();
+                json.beginArray();
+                final String candidate = json.nextString();
+                if (!reading.equals(SEGMENT_SEPARATOR)) {
+                    result.add(new ConversionResult.Phrase(reading, candidate));
+                }
+                while (json.hasNext()) {
+                    json.skipValue(); // 第二候補以降
+                }
+                json.endArray();
+                json.endArray();
+            }
+            json.endArray();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 応答が遅いリクエストと同じリクエストをもう一度送信し、先に返った結果を使用するバックエンド。
+ *
+ * <p>直近の応答時間の指定したパーセンタイルを過ぎても応答がない場合に、二つ目のリクエストを送信する。
+ * どちらかが成功した時点でもう一方は取り消す。</p>
+ *
+ * <p>二つ目のリクエストは、リクエストごとに一定の割合だけ貯まる枠を消費して送信する。
+ * そのため、送信量が設定した割合を超えて増えることはない。</p>
+ *
+ * <p>二つ目のリクエストも {@link AdaptiveConcurrencyLimiter} の送信枠を待たずに取得できた場合に限り送信する。
+ * 混雑した変換サーバーへ制限を超えてリクエストを重ねないためである。</p>
+ */
+@NullMarked
+public final class HedgingKanaKanjiConverter implements KanaKanjiConverter {
+
+    private static final int SAMPLE_SIZE = 128;
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_TOKENS = 10;
+
+    private final KanaKanjiConverter delegate;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final double percentile;
+    private final double maxHedgeRatio;
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private int sampleCount;
+    private int sampleIndex;
+    private double tokens;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param delegate           リクエストを送信するバックエンド
+     * @param settings           追加リクエストの設定
+     * @param concurrencyLimiter 追加リクエストの送信枠を取得する、変換サーバーへの同時リクエスト数の制限器
+     */
+    public HedgingKanaKanjiConverter(
+            final KanaKanjiConverter delegate,
+            final PrimaryConfig.HedgingSettings settings,
+            final AdaptiveConcurrencyLimiter concurrencyLimiter
+    ) {
+        this.delegate = delegate;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.percentile = settings.percentile();
+        this.maxHedgeRatio = settings.maxHedgeRatio();
+    }
+
+    @Override
+    public CompletableFuture<ConversionResult> convert(final List<String> segments) {
+        final CompletableFuture<ConversionResult> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final CompletableFuture<ConversionResult> primary = this.attempt(segments, result, pending, false);
+
+        final long delayNanos = this.admitHedgeDelay();
+        if (delayNanos >= 0) {
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                if (result.isDone() || !this.concurrencyLimiter.tryAcquire()) {
+                    return;
+                }
+                if (!this.tryTakeToken()) {
+                    this.concurrencyLimiter.cancel();
+                    return;
+                }
+                pending.incrementAndGet();
+                this.hedged.increment();
+                final CompletableFuture<ConversionResult> secondary = this.attempt(segments, result, pending, true);
+                // 送信の直前に結果が確定していた場合も、登録と同時に取り消して送信枠を返却させる
+                result.whenComplete((converted, throwable) -> secondary.cancel(true));
+            });
+        }
+
+        // 先に完了した結果を使用し、残りのリクエストは取り消す
+        result.whenComplete((converted, throwable) -> primary.cancel(true));
+        return result;
+    }
+
+    private CompletableFuture<ConversionResult> attempt(
+            final List<String> segments,
+            final CompletableFuture<ConversionResult> result,
+            final AtomicInteger pending,
+            final boolean hedge
+    ) {
+        final long start = System.nanoTime();
+        final CompletableFuture<ConversionResult> attempt = this.delegate.convert(segments);
+        attempt.whenComplete((converted, throwable) -> {
+            if (hedge) {
+                this.releaseHedge(System.nanoTime() - start, throwable);
+            }
+            if (throwable == null) {
+                this.record(System.nanoTime() - start);
+                if (result.complete(converted) && hedge) {
+                    this.hedgeWins.increment();
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(throwable);
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * 追加リクエストの送信枠を返却する。
+     *
+     * <p>先に返った結果によって取り消された場合は、変換サーバーの状態を反映しないため上限を調整しない。</p>
+     *
+     * @param latencyNanos 応答までにかかった時間 (ナノ秒)
+     * @param throwable    失敗した場合の例外。成功した場合は {@code null}
+     */
+    private void releaseHedge(final long latencyNanos, final @Nullable Throwable throwable) {
+        if (throwable instanceof CancellationException) {
+            this.concurrencyLimiter.cancel();
+        } else {
+            this.concurrencyLimiter.release(latencyNanos, throwable == null);
+        }
+    }
+
+    /**
+     * リクエストの送信に伴って追加リクエストの枠を貯め、追加リクエストを送信するまでの待ち時間を求める。
+     *
+     * @return 待ち時間 (ナノ秒)。応答時間の記録が足りない場合は {@code -1}
+     */
+    private long admitHedgeDelay() {
+        synchronized (this) {
+            this.tokens = Math.min(MAX_TOKENS, this.tokens + this.maxHedgeRatio);
+        }
+        return this.percentileNanos();
+    }
+
+    private long percentileNanos() {
+        final long[] sorted;
+        synchronized (this) {
+            if (this.sampleCount < MIN_SAMPLES) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(this.samples, this.sampleCount);
+        }
+
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(this.percentile / 100 * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)];
+    }
+
+    private synchronized boolean tryTakeToken() {
+        if (this.tokens < 1) {
+            return false;
+        }
+        this.tokens--;
+        return true;
+    }
+
+    private synchronized void record(final long latencyNanos) {
+        this.samples[this.sampleIndex] = latencyNanos;
+        this.sampleIndex = (this.sampleIndex + 1) % SAMPLE_SIZE;
+        this.sampleCount = Math.min(this.sampleCount + 1, SAMPLE_SIZE);
+    }
+
+    /**
+     * 追加リクエストを送信するまでの現在の待ち時間。
+     *
+     * @return 待ち時間 (ミリ秒)。応答時間の記録が足りない場合は {@code -1}
+     */
+    public long hedgeDelayMillis() {
+        final long nanos = this.percentileNanos();
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 追加リクエストを送信した回数。
+     *
+     * @return 追加リクエストを送信した回数
+     */
+    public long hedgedCount() {
+        return this.hedged.sum();
+    }
+
+    /**
+     * 追加リクエストの方が先に結果を返した回数。
+     *
+     * @return 追加リクエストが先に返った回数
+     */
+    public long hedgeWinCount() {
+        return this.hedgeWins.sum();
+    }
+
+    @Override
+    public void close() {
+        this.delegate.close();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * よく変換される語句と変換結果をファイルに保存し、起動時にキャッシュへ読み込むためのクラス。
+ *
+ * <p>再起動の直後でも変換サーバーへの問い合わせを減らせるよう、
+ * {@link KanjiConversionCache} の中で参照頻度の高い上位の変換結果を一定間隔でプラグインディレクトリに書き出す。</p>
+ */
+@NullMarked
+public final class HotPhraseStore implements AutoCloseable {
+
+    private static final String FILE_NAME = "hot-phrases.json";
+
+    private final LoggingService logger;
+    private final KanjiConversionCache cache;
+    private final Path file;
+    private final int limit;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * このクラスのインスタンスを生成し、保存された変換結果の読み込みをバックグラウンドで開始する。
+     *
+     * @param settings      ひらがなから漢字への変換設定
+     * @param logger        ロギングサービス
+     * @param dataDirectory 変換結果を保存するプラグインディレクトリ
+     * @param cache         変換結果を読み込むキャッシュ
+     */
+    public HotPhraseStore(
+            final PrimaryConfig.KanjiConversionSettings settings,
+            final LoggingService logger,
+            final Path dataDirectory,
+            final KanjiConversionCache cache
+    ) {
+        this.logger = logger;
+        this.cache = cache;
+        this.file = dataDirectory.resolve(FILE_NAME);
+        this.limit = settings.hotPhrasesSize();
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("%s %s Thread #%%d".formatted("CarbonJapanizer", "HotPhrase"))
+                .setUncaughtExceptionHandler((thread, throwable) -> this.logger.hotPhrasesThreadUncaught(thread.getName()).logging(throwable))
+                .build());
+
+        this.executor.execute(this::load);
+        final long saveMinutes = settings.hotPhrasesSaveMinutes();
+        this.executor.scheduleWithFixedDelay(this::save, saveMinutes, saveMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 保存された変換結果をキャッシュに読み込む。
+     *
+     * <p>実行器に投入した処理の例外はスレッドの例外ハンドラーに届かないため、失敗はここで記録する。
+     * 途中で失敗した場合も、それまでに読み込んだ変換結果はキャッシュに残す。</p>
+     */
+    private void load() {
+        if (!Files.isRegularFile(this.file)) {
+            return;
+        }
+
+        int count = 0;
+        try (Reader reader = Files.newBufferedReader(this.file, StandardCharsets.UTF_8);
+             JsonReader json = new JsonReader(reader)) {
+            json.beginArray();
+            while (json.hasNext() && count < this.limit) {
+                json.beginArray();
+                this.cache.warm(json.nextString(), json.nextString());
+                json.endArray();
+                count++;
+            }
+        } catch (final IOException | RuntimeException exception) {
+            this.logger.hotPhrasesLoadFailed().logging(exception);
+            return;
+        }
+        this.logger.hotPhrasesLoaded(count);
+    }
+
+    /**
+     * 参照頻度の高い変換結果をファイルに書き出す。
+     *
+     * <p>定期実行の処理が例外で終了すると以降の実行が黙って止まるため、失敗はここで記録して次回の実行に備える。</p>
+     */
+    private void save() {
+        final Map<String, String> hottest = this.cache.hottest(this.limit);
+        if (hottest.isEmpty()) {
+            return; // 起動直後などに、保存済みの語句を空の内容で上書きしない
+        }
+
+        final Path temporary = this.file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8);
+                 JsonWriter json = new JsonWriter(writer)) {
+                json.beginArray();
+                for (final Map.Entry<String, String> entry : hottest.entrySet()) {
+                    json.beginArray().value(entry.getKey()).value(entry.getValue()).endArray();
+                }
+                json.endArray();
+            }
+            Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | RuntimeException exception) {
+            this.logger.hotPhrasesSaveFailed().logging(exception);
+        }
+    }
+
+    /**
+     * 定期的な書き出しを停止し、現在の変換結果を書き出す。
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+        try {
+            this.executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.save();
+    }
+}
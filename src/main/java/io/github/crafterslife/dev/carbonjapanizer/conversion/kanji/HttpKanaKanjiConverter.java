@@ -0,0 +1,146 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocketHandshakeException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * HTTPで変換サーバーと通信するバックエンドの共通処理。
+ *
+ * <p>バックエンドごとに一つの {@link HttpClient} を共有し、キープアライブによって接続を再利用する。
+ * 同時に送信するリクエストの数は設定された上限までに制限される。</p>
+ */
+@NullMarked
+abstract class HttpKanaKanjiConverter implements KanaKanjiConverter {
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+            .name("%s %s Thread #".formatted("CarbonJapanizer", "KanaKanjiConverter"), 0)
+            .factory());
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param version               使用するHTTPのバージョン
+     * @param connectTimeoutMillis  接続タイムアウト (ミリ秒)
+     * @param requestTimeoutMillis  応答を待つタイムアウト (ミリ秒)
+     * @param maxConcurrentRequests 同時に送信するリクエストの上限
+     */
+    HttpKanaKanjiConverter(
+            final HttpClient.Version version,
+            final long connectTimeoutMillis,
+            final long requestTimeoutMillis,
+            final int maxConcurrentRequests
+    ) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(version)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>返された {@link CompletableFuture} を取り消した場合は、送信中のリクエストも中断する。</p>
+     */
+    @Override
+    public final CompletableFuture<ConversionResult> convert(final List<String> segments) {
+        final CompletableFuture<ConversionResult> result = new CompletableFuture<>();
+        final Future<?> task = this.executor.submit(() -> {
+            try {
+                this.permits.acquire();
+                try {
+                    result.complete(this.send(segments));
+                } finally {
+                    this.permits.release();
+                }
+            } catch (final Throwable throwable) {
+                // 応答の形式の不正や設定の誤りによる実行時例外も含め、必ず結果を完了させる
+                result.completeExceptionally(throwable);
+            }
+        });
+        result.whenComplete((converted, throwable) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private ConversionResult send(final List<String> segments) throws IOException, InterruptedException {
+        final HttpRequest request = this.request(segments)
+                .timeout(this.requestTimeout)
+                .build();
+
+        final HttpResponse<InputStream> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+            if (response.statusCode() != 200) {
+                throw new WebSocketHandshakeException(response);
+            }
+
+            return this.parse(segments, reader);
+        }
+    }
+
+    /**
+     * 変換リクエストを組み立てる。
+     *
+     * @param segments 変換対象の文節
+     * @return タイムアウト以外を設定したリクエスト
+     */
+    abstract HttpRequest.Builder request(List<String> segments);
+
+    /**
+     * 変換結果の応答を読み取る。
+     *
+     * @param segments 変換対象の文節
+     * @param reader   応答の本文
+     * @return 変換結果
+     * @throws IOException 応答の形式が不正な場合
+     */
+    abstract ConversionResult parse(List<String> segments, Reader reader) throws IOException;
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+        this.httpClient.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * ひらがなを漢字へ変換するバックエンド。
+ *
+ * <p>実装は設定の {@code kanji-conversion.backend} によって選択される。</p>
+ */
+@NullMarked
+public interface KanaKanjiConverter extends AutoCloseable {
+
+    /**
+     * 設定に応じたバックエンドを生成する。
+     *
+     * <p>追加リクエストが有効な場合、HTTPのバックエンドは {@link HedgingKanaKanjiConverter} で包んで返す。</p>
+     *
+     * @param settings           ひらがなから漢字への変換設定
+     * @param dataDirectory      辞書を読み込むプラグインディレクトリ
+     * @param logger             ロギングサービス
+     * @param concurrencyLimiter 追加リクエストの送信枠を取得する、変換サーバーへの同時リクエスト数の制限器
+     * @return バックエンド
+     * @throws UncheckedIOException 辞書の読み込みに失敗した場合
+     */
+    static KanaKanjiConverter create(
+            final PrimaryConfig.KanjiConversionSettings settings,
+            final Path dataDirectory,
+            final LoggingService logger,
+            final AdaptiveConcurrencyLimiter concurrencyLimiter
+    ) throws UncheckedIOException {
+        final KanaKanjiConverter backend = switch (settings.backend()) {
+            case GOOGLE -> new GoogleKanaKanjiConverter(settings.google());
+            case LOCAL_HTTP -> new LocalHttpKanaKanjiConverter(settings.localHttp());
+            case SKK -> {
+                try {
+                    yield SkkKanaKanjiConverter.open(settings.skk(), dataDirectory, logger);
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+        };
+
+        // 手元で変換するバックエンドは応答が遅れることがないため、追加リクエストは送信しない
+        return settings.hedging().enabled() && backend instanceof HttpKanaKanjiConverter
+                ? new HedgingKanaKanjiConverter(backend, settings.hedging(), concurrencyLimiter)
+                : backend;
+    }
+
+    /**
+     * 一つの文章を構成する文節をまとめて漢字へ変換する。
+     *
+     * <p>{@code segments} の各要素の境界を文節の区切りとして扱い、一度のリクエストで変換する。
+     * 変換に失敗した場合は、例外によって完了した {@link CompletableFuture} を返す。</p>
+     *
+     * @param segments 変換対象の文節
+     * @return 変換結果
+     */
+    CompletableFuture<ConversionResult> convert(List<String> segments);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,168 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * ひらがなをキーとして漢字への変換結果を保持するキャッシュ。
+ *
+ * <p>同じ語句の変換で繰り返し変換サーバーへリクエストを送信することを避ける。
+ * 最大件数と有効期限は設定で変更でき、ヒット率などの統計を記録する。</p>
+ *
+ * <p>{@link PersistentConversionCache} が与えられた場合は、メモリ上に存在しない変換結果を
+ * データベースから読み込み、新しい変換結果をデータベースにも書き込む。</p>
+ */
+@NullMarked
+public final class KanjiConversionCache {
+
+    private final Cache<String, String> cache;
+    private final @Nullable PersistentConversionCache persistentCache;
+    private final LongAdder persistentHits = new LongAdder();
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings        ひらがなから漢字への変換設定
+     * @param persistentCache 二次キャッシュ。使用しない場合は {@code null}
+     */
+    public KanjiConversionCache(
+            final PrimaryConfig.KanjiConversionSettings settings,
+            final @Nullable PersistentConversionCache persistentCache
+    ) {
+        this.persistentCache = persistentCache;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.cacheMaximumSize())
+                .expireAfterAccess(Duration.ofMinutes(settings.cacheExpireMinutes()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * メモリ上のキャッシュから変換結果を取得する。
+     *
+     * <p>このメソッドがスレッドをブロックすることはない。
+     * 見つかった場合は、二次キャッシュの最終使用日時の更新を予約する。</p>
+     *
+     * @param hiragana 変換前のひらがな
+     * @return 変換結果。キャッシュに存在しない場合は {@code null}
+     */
+    public @Nullable String getIfPresent(final String hiragana) {
+        final String kanji = this.cache.getIfPresent(hiragana);
+        if (kanji != null && this.persistentCache != null) {
+            this.persistentCache.touch(hiragana);
+        }
+        return kanji;
+    }
+
+    /**
+     * 二次キャッシュから変換結果を検索し、見つかった結果をメモリ上に昇格させる。
+     *
+     * <p>二次キャッシュの検索中はスレッドがブロックされる。</p>
+     *
+     * @param hiragana 変換前のひらがな
+     * @return 変換結果。二次キャッシュを使用しない場合や存在しない場合は {@code null}
+     */
+    public @Nullable String findStored(final String hiragana) {
+        if (this.persistentCache == null) {
+            return null;
+        }
+
+        final String stored = this.persistentCache.find(hiragana);
+        if (stored != null) {
+            this.persistentHits.increment();
+            this.cache.put(hiragana, stored);
+            this.persistentCache.touch(hiragana); // 最終使用日時を更新する
+        }
+        return stored;
+    }
+
+    /**
+     * 変換結果をキャッシュに保存する。
+     *
+     * @param hiragana 変換前のひらがな
+     * @param kanji    変換結果
+     */
+    public void put(final String hiragana, final String kanji) {
+        this.cache.put(hiragana, kanji);
+        if (this.persistentCache != null) {
+            this.persistentCache.save(hiragana, kanji);
+        }
+    }
+
+    /**
+     * 変換結果をメモリ上のキャッシュにだけ保存する。
+     *
+     * <p>既にキャッシュに存在する場合は何もしない。起動時の読み込みに使用するため、統計や二次キャッシュには影響しない。</p>
+     *
+     * @param hiragana 変換前のひらがな
+     * @param kanji    変換結果
+     */
+    public void warm(final String hiragana, final String kanji) {
+        this.cache.asMap().putIfAbsent(hiragana, kanji);
+    }
+
+    /**
+     * 参照頻度の高い順に変換結果を取得する。
+     *
+     * @param limit 取得する最大件数
+     * @return 参照頻度の高い順に並んだ変換結果
+     */
+    public Map<String, String> hottest(final int limit) {
+        return this.cache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElse(Map.of());
+    }
+
+    /**
+     * キャッシュの統計。
+     *
+     * @return キャッシュの統計のスナップショット
+     */
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+
+    /**
+     * メモリ上に存在せず、二次キャッシュから読み込まれた回数。
+     *
+     * @return 二次キャッシュのヒット数
+     */
+    public long persistentHitCount() {
+        return this.persistentHits.sum();
+    }
+
+    /**
+     * キャッシュに保存されているおおよその件数。
+     *
+     * @return キャッシュの件数
+     */
+    public long estimatedSize() {
+        return this.cache.estimatedSize();
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * ひらがなを漢字へ変換するサービス。
+ *
+ * <p>キャッシュに存在しない変換は仮想スレッド上で非同期に実行する。
+ * 呼び出し元は期限を指定して結果を待ち、期限に間に合わなかった場合はひらがなのまま扱う。
+ * 期限を過ぎた変換もそのまま継続し、完了した結果はキャッシュに保存される。</p>
+ *
+ * <p>同じ文字列の変換が実行中の場合は新たにリクエストを送信せず、実行中の変換結果を共有する。</p>
+ *
+ * <p>既知の文節だけで構成された文章は {@link PhraseCache} によってネットワークを使わずに変換する。</p>
+ *
+ * <p>変換サーバーへのリクエストは {@link AdaptiveConcurrencyLimiter} と {@link CircuitBreaker} を通して送信する。
+ * 同時リクエスト数が上限に達している場合や遮断中はリクエストを送信せず、ひらがなのまま扱う。</p>
+ *
+ * <p>設定した文字数を超える文章は句読点の位置で分割し、それぞれを並行に変換してから元の順序で連結する。
+ * 分割した文章はそれぞれ個別にキャッシュされる。</p>
+ *
+ * <p>変換にかかった時間と実行中の変換の数は {@link LoadShedder} へ報告し、負荷に応じた縮退の判定に使用する。</p>
+ */
+@NullMarked
+public final class KanjiConversionService implements AutoCloseable {
+
+    private static final String SEGMENT_SEPARATOR = ",";
+    private static final String CHUNK_DELIMITERS = "。、！？";
+
+    private final LoggingService logger;
+    private final KanaKanjiConverter converter;
+    private final KanjiConversionCache cache;
+    private final PhraseCache phraseCache;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final LoadShedder loadShedder;
+    private final int chunkThreshold;
+    private final long loadTimeoutMillis;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+            .name("%s %s Thread #".formatted("CarbonJapanizer", "KanjiConversion"), 0)
+            .factory());
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder deadlineMisses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder composed = new LongAdder();
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings           かな漢字変換の設定
+     * @param logger             例外発生時に使用するロギングサービス
+     * @param converter          変換に使用するバックエンド
+     * @param cache              変換結果のキャッシュ
+     * @param phraseCache        文節ごとの変換結果のキャッシュ
+     * @param concurrencyLimiter 変換サーバーへ同時に送信するリクエスト数の制限器
+     * @param circuitBreaker     変換サーバーへのリクエストを遮断するサーキットブレーカー
+     * @param loadShedder        負荷に応じて変換を縮退させる制御器
+     */
+    public KanjiConversionService(
+            final PrimaryConfig.KanjiConversionSettings settings,
+            final LoggingService logger,
+            final KanaKanjiConverter converter,
+            final KanjiConversionCache cache,
+            final PhraseCache phraseCache,
+            final AdaptiveConcurrencyLimiter concurrencyLimiter,
+            final CircuitBreaker circuitBreaker,
+            final LoadShedder loadShedder
+    ) {
+        this.logger = logger;
+        this.converter = converter;
+        this.cache = cache;
+        this.phraseCache = phraseCache;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.loadShedder = loadShedder;
+        this.chunkThreshold = settings.chunkThreshold();
+        this.loadTimeoutMillis = loadTimeoutMillis(settings);
+    }
+
+    /**
+     * 期限までにひらがなを漢字へ変換する。
+     *
+     * <p>期限までに変換が完了しなかった場合や、空白のみの文字列の場合は {@code hiragana} をそのまま返す。
+     * 長い文章を分割して変換した場合は、期限に間に合った部分だけを漢字へ変換し、残りはひらがなのまま連結する。</p>
+     *
+     * @param hiragana      変換対象の文字列
+     * @param deadlineNanos {@link System#nanoTime()} を基準とした期限
+     * @return 変換結果。期限に間に合わなかった場合は {@code hiragana}
+     */
+    public String convertWithin(final String hiragana, final long deadlineNanos) {
+        if (hiragana.isBlank()) {
+            return hiragana;
+        }
+
+        final List<String> chunks = chunk(hiragana, this.chunkThreshold);
+
+        // 先にすべての変換を開始してから待機し、分割した文章を並行に変換する
+        final List<CompletableFuture<String>> futures = chunks.stream()
+                .map(this::convertChunk)
+                .toList();
+        final StringBuilder result = new StringBuilder(hiragana.length());
+        boolean missed = false;
+        for (int i = 0; i < chunks.size(); i++) {
+            final String chunk = chunks.get(i);
+            final String kanji = this.await(futures.get(i), chunk, deadlineNanos);
+            if (kanji == null) {
+                missed = true;
+                result.append(chunk);
+            } else {
+                result.append(kanji);
+            }
+        }
+        if (missed) {
+            this.deadlineMisses.increment();
+        }
+        return result.toString();
+    }
+
+    /**
+     * 期限までに複数のひらがなを一度のリクエストでまとめて漢字へ変換する。
+     *
+     * <p>一つのメッセージを構成する複数のテキストを、文節の区切りを指定した一つの文字列として変換し、
+     * 変換結果を元の区切りで分割して返す。空白のみのテキストは変換せずにそのまま返す。
+     * 期限に間に合わなかった場合や、変換結果を元の区切りで分割できなかった場合は {@code texts} をそのまま返す。</p>
+     *
+     * @param texts         変換対象の文字列の一覧
+     * @param deadlineNanos {@link System#nanoTime()} を基準とした期限
+     * @return {@code texts} と同じ件数の変換結果
+     */
+    public List<String> convertWithin(final List<String> texts, final long deadlineNanos) {
+        final List<String> spans = texts.stream()
+                .filter(text -> !text.isBlank())
+                .toList();
+        if (spans.isEmpty()) {
+            return texts;
+        }
+
+        final String joined = String.join(SEGMENT_SEPARATOR, spans);
+        final String converted = this.convertWithin(joined, deadlineNanos);
+        final String[] segments = converted.split(SEGMENT_SEPARATOR, -1);
+        if (segments.length != spans.size()) {
+            return texts;
+        }
+
+        final List<String> result = new ArrayList<>(texts.size());
+        int index = 0;
+        for (final String text : texts) {
+            result.add(text.isBlank() ? text : segments[index++]);
+        }
+        return result;
+    }
+
+    /**
+     * 変換の要求回数。長い文章を分割して変換した場合は、分割した断片ごとに数える。
+     *
+     * <p>{@link #composedCount()} と同じ単位で数え、既知の文節だけで変換した割合を求められるようにする。</p>
+     *
+     * @return 変換の要求回数
+     */
+    public long conversionCount() {
+        return this.conversions.sum();
+    }
+
+    /**
+     * 期限に間に合わず、ひらがなのまま扱われた回数。
+     *
+     * @return 期限超過の回数
+     */
+    public long deadlineMissCount() {
+        return this.deadlineMisses.sum();
+    }
+
+    /**
+     * 実行中の変換と結果を共有したことで、送信せずに済んだリクエストの回数。
+     *
+     * @return 共有された回数
+     */
+    public long coalescedCount() {
+        return this.coalesced.sum();
+    }
+
+    /**
+     * 既知の文節だけで変換し、ネットワークを使わずに済んだ回数。分割した断片ごとに数える。
+     *
+     * @return 既知の文節だけで変換した回数
+     */
+    public long composedCount() {
+        return this.composed.sum();
+    }
+
+    /**
+     * 変換サーバーへ同時に送信するリクエスト数の制限器。
+     *
+     * @return 同時リクエスト数の制限器
+     */
+    public AdaptiveConcurrencyLimiter concurrencyLimiter() {
+        return this.concurrencyLimiter;
+    }
+
+    /**
+     * 変換サーバーへのリクエストを遮断するサーキットブレーカー。
+     *
+     * @return サーキットブレーカー
+     */
+    public CircuitBreaker circuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * 負荷に応じて変換を縮退させる制御器。
+     *
+     * @return 負荷に応じた縮退の制御器
+     */
+    public LoadShedder loadShedder() {
+        return this.loadShedder;
+    }
+
+    private @Nullable String compose(final String hiragana) {
+        final String[] segments = hiragana.split(SEGMENT_SEPARATOR, -1);
+        for (int i = 0; i < segments.length; i++) {
+            final String kanji = this.phraseCache.compose(segments[i]);
+            if (kanji == null) {
+                return null;
+            }
+            segments[i] = kanji;
+        }
+        return String.join(SEGMENT_SEPARATOR, segments);
+    }
+
+    /**
+     * 分割済みの文字列を漢字へ非同期に変換する。
+     *
+     * @param hiragana 変換対象の文字列
+     * @return 変換結果の {@link CompletableFuture}
+     */
+    private CompletableFuture<String> convertChunk(final String hiragana) {
+        this.conversions.increment();
+        final String cached = this.cache.getIfPresent(hiragana);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        final String composedKanji = this.compose(hiragana);
+        if (composedKanji != null) {
+            this.composed.increment();
+            return CompletableFuture.completedFuture(composedKanji);
+        }
+
+        final CompletableFuture<String> created = new CompletableFuture<>();
+        final CompletableFuture<String> running = this.inFlight.putIfAbsent(hiragana, created);
+        if (running != null) {
+            this.coalesced.increment();
+            return running;
+        }
+
+        this.loadShedder.started(this.inFlight.size());
+        final long submitted = System.nanoTime();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    created.complete(this.load(hiragana));
+                } catch (final RuntimeException exception) {
+                    this.logger.japanizeKanaToKanjiFailed(hiragana).logging(exception);
+                } finally {
+                    // 失敗した場合もひらがなで完了させ、まとめて待っている呼び出しを待たせ続けない
+                    created.complete(hiragana);
+                    // キャッシュへの保存後に取り除くため、以降の呼び出しはキャッシュから結果を得る
+                    this.inFlight.remove(hiragana, created);
+                    this.loadShedder.record(System.nanoTime() - submitted, this.inFlight.size());
+                }
+            });
+        } catch (final RejectedExecutionException exception) {
+            this.inFlight.remove(hiragana, created);
+            created.complete(hiragana);
+        }
+        return created;
+    }
+
+    /**
+     * 期限まで変換結果を待機する。
+     *
+     * @param future        変換結果の {@link CompletableFuture}
+     * @param hiragana      変換対象の文字列
+     * @param deadlineNanos {@link System#nanoTime()} を基準とした期限
+     * @return 変換結果。期限に間に合わなかった場合は {@code null}、変換に失敗した場合は {@code hiragana}
+     */
+    private @Nullable String await(final CompletableFuture<String> future, final String hiragana, final long deadlineNanos) {
+        if (future.isDone()) {
+            return future.join();
+        }
+
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException exception) {
+            return null;
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return hiragana;
+        } catch (final ExecutionException exception) {
+            return hiragana;
+        }
+    }
+
+    /**
+     * 長い文字列を句読点の位置で分割する。
+     *
+     * <p>句読点の直後を区切り位置とし、各断片が {@code threshold} 文字を超えない範囲でなるべく長くまとめる。
+     * 文節の区切りの直前では分割しないため、分割後の断片が空の文節を含むことはない。
+     * 句読点を含まない長い断片はそのまま一つの断片とする。</p>
+     *
+     * @param text      分割対象の文字列
+     * @param threshold 分割する文字数。0以下の場合は分割しない
+     * @return 分割した文字列の一覧。連結すると {@code text} と一致する
+     */
+    private static List<String> chunk(final String text, final int threshold) {
+        final int length = text.length();
+        if (threshold <= 0 || length <= threshold) {
+            return List.of(text);
+        }
+
+        final List<String> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        int pieceStart = 0;
+        for (int i = 0; i < length; i++) {
+            final int pieceEnd = i + 1;
+            final boolean delimiter = CHUNK_DELIMITERS.indexOf(text.charAt(i)) >= 0
+                    && !text.startsWith(SEGMENT_SEPARATOR, pieceEnd);
+            if (!delimiter && pieceEnd < length) {
+                continue;
+            }
+
+            if (pieceEnd - chunkStart > threshold && pieceStart > chunkStart) {
+                chunks.add(text.substring(chunkStart, pieceStart));
+                chunkStart = pieceStart;
+            }
+            pieceStart = pieceEnd;
+        }
+        chunks.add(text.substring(chunkStart));
+        return chunks;
+    }
+
+    /**
+     * バックエンドの応答を待つ上限時間を求める。
+     *
+     * <p>HTTPのバックエンドは接続と応答のタイムアウトの合計に、追加リクエストの分として変換の期限を加える。
+     * ローカルの辞書は変換の期限を上限とする。</p>
+     *
+     * @param settings かな漢字変換の設定
+     * @return 応答を待つ上限時間 (ミリ秒)
+     */
+    private static long loadTimeoutMillis(final PrimaryConfig.KanjiConversionSettings settings) {
+        return switch (settings.backend()) {
+            case GOOGLE -> settings.google().connectTimeoutMillis() + settings.google().requestTimeoutMillis() + settings.deadlineMillis();
+            case LOCAL_HTTP -> settings.localHttp().connectTimeoutMillis() + settings.localHttp().requestTimeoutMillis() + settings.deadlineMillis();
+            case SKK -> settings.deadlineMillis();
+        };
+    }
+
+    private String load(final String hiragana) {
+        final String stored = this.cache.findStored(hiragana);
+        if (stored != null) {
+            return stored;
+        }
+
+        try {
+            if (!this.concurrencyLimiter.acquire()) {
+                return hiragana;
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return hiragana;
+        }
+
+        if (!this.circuitBreaker.tryAcquire()) {
+            this.concurrencyLimiter.cancel();
+            return hiragana;
+        }
+
+        final long start = System.nanoTime();
+        boolean success = false;
+        boolean interrupted = false;
+        @Nullable CompletableFuture<ConversionResult> pending = null;
+        @Nullable Throwable failure = null;
+        try {
+            final List<String> segments = List.of(hiragana.split(SEGMENT_SEPARATOR, -1));
+            pending = this.converter.convert(segments);
+            final ConversionResult result = pending.get(this.loadTimeoutMillis, TimeUnit.MILLISECONDS);
+            success = true;
+            final String kanji = String.join(SEGMENT_SEPARATOR, result.segments());
+            this.phraseCache.putAll(result.phrases());
+            this.cache.put(hiragana, kanji);
+            return kanji;
+        } catch (final ExecutionException exception) {
+            failure = Objects.requireNonNullElse(exception.getCause(), exception);
+            return hiragana;
+        } catch (final TimeoutException | RuntimeException exception) {
+            failure = exception;
+            return hiragana;
+        } catch (final InterruptedException exception) {
+            interrupted = true;
+            Thread.currentThread().interrupt();
+            return hiragana;
+        } finally {
+            if (pending != null && !pending.isDone()) {
+                // 応答しないバックエンドへのリクエストを中断する
+                pending.cancel(true);
+            }
+            // 枠の返却と結果の報告を必ず行い、制限器やサーキットブレーカーが戻らなくなることを防ぐ
+            // 終了や取り消しによる割り込みはバックエンドの障害ではないため、失敗としては報告しない
+            if (success) {
+                this.circuitBreaker.onSuccess();
+            } else if (interrupted) {
+                this.circuitBreaker.onCancel();
+            } else {
+                this.circuitBreaker.onFailure();
+            }
+            this.concurrencyLimiter.release(System.nanoTime() - start, success);
+
+            // 障害中にスタックトレースを繰り返し記録しないよう、遮断後の失敗は状態の遷移のみを記録する
+            if (failure != null && this.circuitBreaker.state() == CircuitBreaker.State.CLOSED) {
+                this.logger.japanizeKanaToKanjiFailed(hiragana).logging(failure);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+}
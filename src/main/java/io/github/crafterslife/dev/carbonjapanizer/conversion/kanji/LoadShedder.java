@@ -0,0 +1,220 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 変換処理の負荷に応じて、変換を段階的に縮退させる制御器。
+ *
+ * <p>変換にかかる時間の平均と実行中の変換の数を監視し、いずれかが基準値を超えると直ちに {@link Mode} を一段階以上引き上げる。
+ * 解除は基準値に {@code recoveryRatio} を掛けた値を両方とも下回り、かつ最後の切り替えから一定時間が経過した場合に限り、
+ * 一段階ずつ行う。基準値付近で切り替えが繰り返されることを防ぐためである。</p>
+ *
+ * <p>平均変換時間は最後の計測からの経過時間に応じて減衰させる。
+ * 縮退中は新たな変換が行われず計測値が得られないため、減衰によって解除の判定を進める。</p>
+ */
+@NullMarked
+public final class LoadShedder {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final LoggingService logger;
+    private final boolean enabled;
+    private final long hiraganaOnlyLatencyNanos;
+    private final int hiraganaOnlyInFlight;
+    private final long passThroughLatencyNanos;
+    private final int passThroughInFlight;
+    private final double recoveryRatio;
+    private final long recoveryNanos;
+    private final long announceIntervalNanos;
+
+    private volatile Mode mode = Mode.NORMAL;
+    private long changedAt = System.nanoTime();
+    private double averageLatencyNanos;
+    private long lastSampleAt = System.nanoTime();
+    private int inFlight;
+    private long lastAnnouncedAt;
+    private boolean announced;
+    private int suppressed;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings ひらがなから漢字への変換設定
+     * @param logger   動作の切り替えを記録するロギングサービス
+     */
+    public LoadShedder(final PrimaryConfig.KanjiConversionSettings settings, final LoggingService logger) {
+        final PrimaryConfig.LoadSheddingSettings loadShedding = settings.loadShedding();
+        this.logger = logger;
+        this.enabled = loadShedding.enabled();
+        this.hiraganaOnlyLatencyNanos = TimeUnit.MILLISECONDS.toNanos(loadShedding.hiraganaOnlyLatencyMillis());
+        this.hiraganaOnlyInFlight = loadShedding.hiraganaOnlyInFlight();
+        this.passThroughLatencyNanos = TimeUnit.MILLISECONDS.toNanos(loadShedding.passThroughLatencyMillis());
+        this.passThroughInFlight = loadShedding.passThroughInFlight();
+        this.recoveryRatio = loadShedding.recoveryRatio();
+        this.recoveryNanos = TimeUnit.MILLISECONDS.toNanos(loadShedding.recoveryMillis());
+        this.announceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(loadShedding.announceIntervalMillis());
+    }
+
+    /**
+     * 現在の動作を取得する。
+     *
+     * <p>縮退中は呼び出しのたびに解除できるかを判定する。</p>
+     *
+     * @return 現在の動作
+     */
+    public Mode mode() {
+        if (this.mode == Mode.NORMAL) {
+            return Mode.NORMAL;
+        }
+
+        synchronized (this) {
+            this.evaluate(System.nanoTime());
+            return this.mode;
+        }
+    }
+
+    /**
+     * 完了した変換にかかった時間と、完了後に実行中の変換の数を記録する。
+     *
+     * @param latencyNanos 変換の開始から完了までにかかった時間 (ナノ秒)
+     * @param inFlight     完了後に実行中の変換の数
+     */
+    public void record(final long latencyNanos, final int inFlight) {
+        if (!this.enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            final long now = System.nanoTime();
+            final double average = this.decayedLatency(now);
+            this.averageLatencyNanos = average + SMOOTHING * (latencyNanos - average);
+            this.lastSampleAt = now;
+            this.inFlight = inFlight;
+            this.evaluate(now);
+        }
+    }
+
+    /**
+     * 新たな変換を開始した時点で実行中の変換の数を記録する。
+     *
+     * @param inFlight 開始後に実行中の変換の数
+     */
+    public void started(final int inFlight) {
+        if (!this.enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            this.inFlight = inFlight;
+            this.evaluate(System.nanoTime());
+        }
+    }
+
+    /**
+     * 現在の平均変換時間。
+     *
+     * @return 平均変換時間 (ミリ秒)
+     */
+    public synchronized long averageLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((long) this.decayedLatency(System.nanoTime()));
+    }
+
+    private void evaluate(final long now) {
+        final double latency = this.decayedLatency(now);
+        final Mode target;
+        if (latency >= this.passThroughLatencyNanos || this.inFlight >= this.passThroughInFlight) {
+            target = Mode.PASS_THROUGH;
+        } else if (latency >= this.hiraganaOnlyLatencyNanos || this.inFlight >= this.hiraganaOnlyInFlight) {
+            target = Mode.HIRAGANA_ONLY;
+        } else {
+            target = Mode.NORMAL;
+        }
+
+        if (target.compareTo(this.mode) > 0) {
+            this.change(target, now, latency);
+            return;
+        }
+
+        if (target == this.mode || now - this.changedAt < this.recoveryNanos) {
+            return;
+        }
+
+        final boolean recovered = switch (this.mode) {
+            case PASS_THROUGH -> latency < this.passThroughLatencyNanos * this.recoveryRatio
+                    && this.inFlight < this.passThroughInFlight * this.recoveryRatio;
+            case HIRAGANA_ONLY -> latency < this.hiraganaOnlyLatencyNanos * this.recoveryRatio
+                    && this.inFlight < this.hiraganaOnlyInFlight * this.recoveryRatio;
+            case NORMAL -> false;
+        };
+        if (recovered) {
+            this.change(Mode.values()[this.mode.ordinal() - 1], now, latency);
+        }
+    }
+
+    private void change(final Mode target, final long now, final double latency) {
+        final boolean degraded = target.compareTo(this.mode) > 0;
+        this.mode = target;
+        this.changedAt = now;
+
+        // 負荷が基準値付近で揺れている間にログが溢れないよう、一定間隔より短い切り替えは回数のみを数える
+        if (this.announced && now - this.lastAnnouncedAt < this.announceIntervalNanos) {
+            this.suppressed++;
+            return;
+        }
+
+        final long latencyMillis = TimeUnit.NANOSECONDS.toMillis((long) latency);
+        if (degraded) {
+            this.logger.loadSheddingDegraded(target.name(), latencyMillis, this.inFlight, this.suppressed);
+        } else {
+            this.logger.loadSheddingRecovered(target.name(), latencyMillis, this.inFlight, this.suppressed);
+        }
+        this.announced = true;
+        this.lastAnnouncedAt = now;
+        this.suppressed = 0;
+    }
+
+    private double decayedLatency(final long now) {
+        return this.averageLatencyNanos * Math.exp(-(now - this.lastSampleAt) / DECAY_NANOS);
+    }
+
+    /**
+     * 負荷に応じた変換の動作。
+     */
+    public enum Mode {
+        /**
+         * ローマ字をかな漢字へ変換する。
+         */
+        NORMAL,
+        /**
+         * 漢字変換を行わず、ローマ字をひらがなへ変換する。
+         */
+        HIRAGANA_ONLY,
+        /**
+         * 変換を行わず、入力されたまま送信する。
+         */
+        PASS_THROUGH
+    }
+}
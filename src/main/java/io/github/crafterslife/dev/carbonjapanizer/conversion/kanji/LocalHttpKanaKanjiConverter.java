@@ -0,0 +1,111 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 同じホストなどで動作する変換サーバーを使用するバックエンド。
+ *
+ * <p>変換対象の文節をJSONの文字列配列として設定されたURLへPOSTし、
+ * 同じ件数の変換結果を格納したJSONの文字列配列を応答として受け取る。</p>
+ *
+ * <pre>{@code
+ * POST /convert
+ * ["きょうは", "いいてんき"]
+ *
+ * 200 OK
+ * ["今日は", "いい天気"]
+ * }</pre>
+ */
+@NullMarked
+final class LocalHttpKanaKanjiConverter extends HttpKanaKanjiConverter {
+
+    private final URI uri;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings 変換サーバーの設定
+     */
+    LocalHttpKanaKanjiConverter(final PrimaryConfig.LocalHttpBackendSettings settings) {
+        super(
+                HttpClient.Version.HTTP_1_1,
+                settings.connectTimeoutMillis(),
+                settings.requestTimeoutMillis(),
+                settings.maxConcurrentRequests()
+        );
+        this.uri = URI.create(settings.url());
+    }
+
+    @Override
+    HttpRequest.Builder request(final List<String> segments) {
+        final StringWriter body = new StringWriter();
+        try (JsonWriter json = new JsonWriter(body)) {
+            json.beginArray();
+            for (final String segment : segments) {
+                json.value(segment);
+            }
+            json.endArray();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception); // StringWriterへの書き込みは失敗しない
+        }
+
+        return HttpRequest.newBuilder()
+                .uri(this.uri)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+    }
+
+    @Override
+    ConversionResult parse(final List<String> segments, final Reader reader) throws IOException {
+        final List<String> result = new ArrayList<>(segments.size());
+        try (JsonReader json = new JsonReader(reader)) {
+            json.beginArray();
+            while (json.hasNext()) {
+                result.add(json.nextString());
+            }
+            json.endArray();
+        }
+
+        if (result.size() != segments.size()) {
+            throw new IOException("Expected %d segments but got %d".formatted(segments.size(), result.size()));
+        }
+
+        // 変換サーバーは文節をそれ以上分割しないため、指定した文節をそのまま文節の変換結果とする
+        final List<ConversionResult.Phrase> phrases = new ArrayList<>(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            phrases.add(new ConversionResult.Phrase(segments.get(i), result.get(i)));
+        }
+        return new ConversionResult(result, phrases);
+    }
+}
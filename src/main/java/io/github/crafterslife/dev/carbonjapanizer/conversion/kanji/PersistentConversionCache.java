@@ -0,0 +1,230 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.crafterslife.dev.carbonjapanizer.database.DatabaseConcurrencyLimiter;
+import io.github.crafterslife.dev.carbonjapanizer.database.entity.ConversionCacheEntry;
+import io.github.crafterslife.dev.carbonjapanizer.database.repository.ConversionCacheRepository;
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.jdbi.v3.core.Jdbi;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * データベースに保存される、サーバー間で共有可能な変換結果のキャッシュ。
+ *
+ * <p>{@link KanjiConversionCache} の二次キャッシュとして使用する。
+ * 変換結果はひらがなのSHA-256ハッシュをキーとして保存する。</p>
+ *
+ * <p>書き込みは即座には実行せず、ひらがなごとにまとめた上で一定間隔で一度のバッチとして書き込む。
+ * そのため、チャットの処理が書き込みの完了を待つことはない。
+ * メモリ上のキャッシュで見つかった変換結果も、同じバッチで最終使用日時を更新し、よく使われる変換結果が削除されないようにする。</p>
+ *
+ * <p>データベースへの読み書きはユーザーデータと同じ {@link DatabaseConcurrencyLimiter} を経由し、
+ * コネクションプールの大きさを超えて同時に実行しない。</p>
+ */
+@NullMarked
+public final class PersistentConversionCache implements AutoCloseable {
+
+    private static final Comparator<byte[]> HASH_ORDER = Arrays::compareUnsigned;
+
+    private final LoggingService logger;
+    private final ConversionCacheRepository repository;
+    private final DatabaseConcurrencyLimiter databaseLimiter;
+    private final Map<String, String> pendingWrites = new ConcurrentHashMap<>();
+    private final Set<String> pendingTouches = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService writer;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings        ひらがなから漢字への変換設定
+     * @param logger          ロギングサービス
+     * @param jdbi            変換結果を操作する {@link Jdbi}
+     * @param databaseLimiter データベースへの同時実行数の制限器
+     */
+    public PersistentConversionCache(
+            final PrimaryConfig.KanjiConversionSettings settings,
+            final LoggingService logger,
+            final Jdbi jdbi,
+            final DatabaseConcurrencyLimiter databaseLimiter
+    ) {
+        this.logger = logger;
+        this.repository = jdbi.onDemand(ConversionCacheRepository.class);
+        this.databaseLimiter = databaseLimiter;
+        this.writer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("%s %s Thread #%%d".formatted("CarbonJapanizer", "ConversionCacheWriter"))
+                .setUncaughtExceptionHandler((thread, throwable) -> this.logger.databaseThreadUncaught(thread.getName()).logging(throwable))
+                .build());
+
+        final Instant expireThreshold = Instant.now().minus(Duration.ofDays(settings.persistentCacheExpireDays()));
+        this.writer.execute(() -> this.deleteUnusedSince(expireThreshold));
+
+        final long flushSeconds = settings.persistentCacheFlushSeconds();
+        this.writer.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * データベースから変換結果を検索する。
+     *
+     * <p>検索の間、スレッドはブロックされる。データベースの処理が混雑している場合は、検索せずに存在しないものとして扱う。</p>
+     *
+     * @param hiragana 変換前のひらがな
+     * @return 変換結果。存在しない場合や検索に失敗した場合は {@code null}
+     */
+    public @Nullable String find(final String hiragana) {
+        if (this.databaseLimiter.saturated()) {
+            return null;
+        }
+
+        final byte[] hash = PersistentConversionCache.hash(hiragana);
+        try {
+            return this.databaseLimiter.submit(() -> this.repository.findKanji(hash).orElse(null)).join();
+        } catch (final CompletionException exception) {
+            if (!(exception.getCause() instanceof RejectedExecutionException)) {
+                this.logger.conversionCacheLookupFailed(hiragana).logging(exception);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 変換結果の書き込みを予約する。
+     *
+     * <p>実際の書き込みは次回のバッチで行われる。同じひらがなへの書き込みは一件にまとめられ、
+     * 最終使用日時もその時点で更新される。</p>
+     *
+     * @param hiragana 変換前のひらがな
+     * @param kanji    変換結果
+     */
+    public void save(final String hiragana, final String kanji) {
+        this.pendingWrites.put(hiragana, kanji);
+    }
+
+    /**
+     * メモリ上のキャッシュで見つかった変換結果の、最終使用日時の更新を予約する。
+     *
+     * <p>実際の更新は次回のバッチで行われる。同じひらがなへの更新は一件にまとめられる。</p>
+     *
+     * @param hiragana 変換前のひらがな
+     */
+    public void touch(final String hiragana) {
+        this.pendingTouches.add(hiragana);
+    }
+
+    /**
+     * 書き込み待ちの件数。
+     *
+     * @return 書き込み待ちの件数
+     */
+    public int pendingWrites() {
+        return this.pendingWrites.size();
+    }
+
+    private void flush() {
+        if (this.pendingWrites.isEmpty() && this.pendingTouches.isEmpty()) {
+            return;
+        }
+
+        final Instant now = Instant.now();
+        final Map<String, String> writes = Map.copyOf(this.pendingWrites);
+        final List<String> touched = this.pendingTouches.stream()
+                .filter(hiragana -> !writes.containsKey(hiragana)) // 書き込みによって最終使用日時も更新される
+                .toList();
+        final List<ConversionCacheEntry> entries = new ArrayList<>(writes.size());
+        writes.forEach((hiragana, kanji) -> entries.add(new ConversionCacheEntry(PersistentConversionCache.hash(hiragana), kanji, now)));
+        final List<byte[]> touches = new ArrayList<>(touched.size());
+        touched.forEach(hiragana -> touches.add(PersistentConversionCache.hash(hiragana)));
+
+        // 複数のサーバーが同時に書き込んでもロックの取得順序が揃うよう、キーの順に並べる
+        entries.sort(Comparator.comparing(ConversionCacheEntry::hash, HASH_ORDER));
+        touches.sort(HASH_ORDER);
+        try {
+            this.databaseLimiter.submit(() -> {
+                if (!entries.isEmpty()) {
+                    this.repository.saveAll(entries);
+                }
+                if (!touches.isEmpty()) {
+                    this.repository.touchAll(touches, now);
+                }
+                return entries;
+            }).join();
+        } catch (final CompletionException exception) {
+            // 待ち行列が埋まっていた場合も含め、書き込めなかった変換結果は次回のバッチで再試行する
+            this.logger.conversionCacheFlushFailed(entries.size() + touches.size()).logging(exception);
+            return;
+        }
+
+        // 書き込み中に予約された新しい変換結果は、次回のバッチまで残す
+        writes.forEach(this.pendingWrites::remove);
+        writes.keySet().forEach(this.pendingTouches::remove);
+        touched.forEach(this.pendingTouches::remove);
+    }
+
+    private void deleteUnusedSince(final Instant threshold) {
+        try {
+            this.databaseLimiter.submit(() -> this.repository.deleteUnusedSince(threshold)).join();
+        } catch (final CompletionException exception) {
+            this.logger.conversionCacheCleanupFailed().logging(exception);
+        }
+    }
+
+    private static byte[] hash(final String hiragana) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(hiragana.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * 定期的な書き込みを停止し、書き込み待ちの変換結果をすべて書き込む。
+     */
+    @Override
+    public void close() {
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+    }
+}
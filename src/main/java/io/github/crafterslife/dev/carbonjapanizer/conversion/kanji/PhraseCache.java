@@ -0,0 +1,131 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * バックエンドが返した文節ごとの読みと変換結果を保持するキャッシュ。
+ *
+ * <p>新しい文章であっても、既知の文節だけで構成されている場合はネットワークを使わずに変換できる。</p>
+ *
+ * <p>一文字の読みは保存しない。「き」や「は」のような一文字の文節は前後の文脈によって変換結果が変わるため、
+ * これを組み合わせると「きき」を「木木」とするような誤った変換を、バックエンドに問い合わせずに作り出してしまうためである。</p>
+ */
+@NullMarked
+public final class PhraseCache {
+
+    private static final int MIN_READING_LENGTH = 2;
+    private static final int MAX_READING_LENGTH = 32;
+
+    private final Cache<String, String> cache;
+    private final AtomicInteger longestReading = new AtomicInteger();
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings ひらがなから漢字への変換設定
+     */
+    public PhraseCache(final PrimaryConfig.KanjiConversionSettings settings) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.phraseCacheMaximumSize())
+                .expireAfterAccess(Duration.ofMinutes(settings.cacheExpireMinutes()))
+                .build();
+    }
+
+    /**
+     * 文節の読みと変換結果を保存する。
+     *
+     * @param phrases 文節の一覧
+     */
+    public void putAll(final List<ConversionResult.Phrase> phrases) {
+        for (final ConversionResult.Phrase phrase : phrases) {
+            final int length = phrase.reading().length();
+            if (length < MIN_READING_LENGTH || length > MAX_READING_LENGTH) {
+                continue;
+            }
+
+            this.cache.put(phrase.reading(), phrase.kanji());
+            this.longestReading.accumulateAndGet(length, Math::max);
+        }
+    }
+
+    /**
+     * 既知の文節を組み合わせてひらがなを変換する。
+     *
+     * <p>文章全体を既知の文節で隙間なく分割できる場合に限り、文節の数が最も少ない分割を使用する。</p>
+     *
+     * @param hiragana 変換対象の文字列
+     * @return 変換結果。既知の文節だけで分割できない場合は {@code null}
+     */
+    public @Nullable String compose(final String hiragana) {
+        final int length = hiragana.length();
+        final int longest = this.longestReading.get();
+        if (length < MIN_READING_LENGTH || longest == 0) {
+            return null;
+        }
+
+        // 先頭から各位置までを分割する最少の文節数と、その位置で終わる文節の開始位置
+        final Map<String, String> phrases = this.cache.asMap();
+        final int[] counts = new int[length + 1];
+        final int[] starts = new int[length + 1];
+        Arrays.fill(counts, Integer.MAX_VALUE);
+        counts[0] = 0;
+        for (int start = 0; start < length; start++) {
+            if (counts[start] == Integer.MAX_VALUE) {
+                continue;
+            }
+
+            final int limit = Math.min(length, start + longest);
+            for (int end = start + MIN_READING_LENGTH; end <= limit; end++) {
+                if (counts[start] + 1 < counts[end] && phrases.containsKey(hiragana.substring(start, end))) {
+                    counts[end] = counts[start] + 1;
+                    starts[end] = start;
+                }
+            }
+        }
+
+        if (counts[length] == Integer.MAX_VALUE) {
+            return null;
+        }
+
+        final String[] kanji = new String[counts[length]];
+        int end = length;
+        for (int i = kanji.length - 1; i >= 0; i--) {
+            final int start = starts[end];
+            final String phrase = this.cache.getIfPresent(hiragana.substring(start, end));
+            if (phrase == null) {
+                return null; // 分割を求めている間に追い出された
+            }
+            kanji[i] = phrase;
+            end = start;
+        }
+        return String.join("", kanji);
+    }
+}
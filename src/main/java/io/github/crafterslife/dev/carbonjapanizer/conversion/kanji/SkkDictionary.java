@@ -0,0 +1,313 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * SKK形式の辞書をコンパイルした索引ファイルを、メモリマップして参照する辞書。
+ *
+ * <p>索引ファイルは読みの昇順に並べた見出しと第一候補だけを保持する。
+ * 索引はヒープに展開せずにメモリマップしたまま二分探索するため、数十万件の辞書でもヒープをほとんど消費しない。</p>
+ *
+ * <p>索引ファイルは次の形式で保存される。文字列はすべてUTF-16の {@code char} 列として格納する。</p>
+ * <pre>{@code
+ * int  MAGIC
+ * int  VERSION
+ * long 元の辞書ファイルのサイズ
+ * long 元の辞書ファイルの更新日時 (ミリ秒)
+ * int  見出しの件数 n
+ * int[n] 各見出しのデータ領域内での位置
+ * データ領域: { char 読みの長さ, char[] 読み, char 候補の長さ, char[] 候補 } * n
+ * }</pre>
+ */
+@NullMarked
+final class SkkDictionary {
+
+    private static final int MAGIC = 0x434A534B; // "CJSK"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES * 2 + Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int dataStart;
+
+    private SkkDictionary(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported dictionary index");
+        }
+        this.size = buffer.getInt(HEADER_BYTES - Integer.BYTES);
+        this.dataStart = HEADER_BYTES + this.size * Integer.BYTES;
+    }
+
+    /**
+     * 辞書の索引ファイルを開く。
+     *
+     * <p>索引ファイルが存在しない場合や、元の辞書ファイルが更新されている場合は索引ファイルを作り直す。</p>
+     *
+     * @param source   SKK形式の辞書ファイル
+     * @param encoding 辞書ファイルの文字コード
+     * @param index    索引ファイル
+     * @return 索引をメモリマップした辞書
+     * @throws IOException 辞書ファイルの読み込みや索引ファイルの書き込みに失敗した場合
+     */
+    static SkkDictionary open(final Path source, final Charset encoding, final Path index) throws IOException {
+        final long sourceSize = Files.size(source);
+        final long sourceModified = Files.getLastModifiedTime(source).toMillis();
+        if (!SkkDictionary.upToDate(index, sourceSize, sourceModified)) {
+            SkkDictionary.compile(source, encoding, index, sourceSize, sourceModified);
+        }
+
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+            return new SkkDictionary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 索引ファイルが元の辞書ファイルから作成されたものかどうかを判定する。
+     *
+     * @param index          索引ファイル
+     * @param sourceSize     元の辞書ファイルのサイズ
+     * @param sourceModified 元の辞書ファイルの更新日時
+     * @return 索引ファイルを作り直す必要がない場合は {@code true}
+     * @throws IOException 索引ファイルの読み込みに失敗した場合
+     */
+    static boolean upToDate(final Path index, final long sourceSize, final long sourceModified) throws IOException {
+        if (!Files.isRegularFile(index) || Files.size(index) < HEADER_BYTES) {
+            return false;
+        }
+
+        try (DataInputStream header = new DataInputStream(Files.newInputStream(index))) {
+            return header.readInt() == MAGIC
+                    && header.readInt() == VERSION
+                    && header.readLong() == sourceSize
+                    && header.readLong() == sourceModified;
+        }
+    }
+
+    private static void compile(
+            final Path source,
+            final Charset encoding,
+            final Path index,
+            final long sourceSize,
+            final long sourceModified
+    ) throws IOException {
+        final Map<String, String> entries = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(source, encoding)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int separator = line.indexOf(" /");
+                if (line.startsWith(";") || separator <= 0) {
+                    continue;
+                }
+
+                final String reading = line.substring(0, separator);
+                final String candidate = SkkDictionary.firstCandidate(line, separator + 1);
+                if (candidate != null && SkkDictionary.okuriNasi(reading)) {
+                    entries.putIfAbsent(reading, candidate);
+                }
+            }
+        }
+
+        final List<Map.Entry<String, String>> sorted = new ArrayList<>(entries.entrySet());
+        sorted.sort(Map.Entry.comparingByKey());
+
+        final Path temporary = index.resolveSibling(index.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(sourceSize);
+            output.writeLong(sourceModified);
+            output.writeInt(sorted.size());
+
+            int position = 0;
+            for (final Map.Entry<String, String> entry : sorted) {
+                output.writeInt(position);
+                position += (2 + entry.getKey().length() + entry.getValue().length()) * Character.BYTES;
+            }
+            for (final Map.Entry<String, String> entry : sorted) {
+                output.writeChar(entry.getKey().length());
+                output.writeChars(entry.getKey());
+                output.writeChar(entry.getValue().length());
+                output.writeChars(entry.getValue());
+            }
+        }
+        Files.move(temporary, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 分かち書きに使用する、送り仮名のない見出しかどうかを判定する。
+     *
+     * <p>送りありの見出し ({@code おくr}) や接頭辞・接尾辞の見出し ({@code お>}) は分かち書きに使用しない。
+     * 一文字の見出しも、最長一致で助詞が {@code は→葉} のように変換されることを防ぐため使用しない。</p>
+     *
+     * @param reading 見出しの読み
+     * @return 分かち書きに使用する見出しの場合は {@code true}
+     */
+    private static boolean okuriNasi(final String reading) {
+        if (reading.length() < 2 || reading.indexOf('>') >= 0) {
+            return false;
+        }
+
+        final char last = reading.charAt(reading.length() - 1);
+        return last < 'a' || last > 'z';
+    }
+
+    /**
+     * 候補の一覧 {@code /候補1;注釈/候補2/} から、注釈を除いた最初の候補を取得する。
+     *
+     * <p>Lispの式で表された候補は使用しない。</p>
+     *
+     * @param line  辞書の行
+     * @param start 候補の一覧が始まる位置
+     * @return 最初の候補。使用できる候補が存在しない場合は {@code null}
+     */
+    private static @Nullable String firstCandidate(final String line, final int start) {
+        int from = start + 1;
+        while (from < line.length()) {
+            int to = line.indexOf('/', from);
+            if (to < 0) {
+                to = line.length();
+            }
+
+            final int annotation = line.indexOf(';', from);
+            final String candidate = line.substring(from, annotation >= 0 && annotation < to ? annotation : to);
+            if (!candidate.isEmpty() && candidate.charAt(0) != '(' && candidate.length() <= Character.MAX_VALUE) {
+                return candidate;
+            }
+            from = to + 1;
+        }
+        return null;
+    }
+
+    /**
+     * 見出しの件数。
+     *
+     * @return 見出しの件数
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * {@code text} の {@code start} 以降に前方一致する最も長い見出しを探す。
+     *
+     * <p>一文字ずつ見出しの範囲を二分探索で絞り込むため、探索にかかる時間は見出しの長さと件数の対数に比例する。</p>
+     *
+     * @param text  検索対象の文字列
+     * @param start 検索を開始する位置
+     * @return 見出しの番号。一致する見出しが存在しない場合は {@code -1}
+     */
+    int longestPrefix(final CharSequence text, final int start) {
+        int low = 0;
+        int high = this.size;
+        int found = -1;
+        for (int depth = 0; start + depth < text.length() && low < high; depth++) {
+            final char target = text.charAt(start + depth);
+            low = this.bound(low, high, depth, target, false);
+            high = this.bound(low, high, depth, target, true);
+            if (low < high && this.readingLength(low) == depth + 1) {
+                found = low;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 範囲内で {@code depth} 文字目が {@code target} 以上 (または {@code target} より大きい) となる最初の見出しを探す。
+     *
+     * @param low    範囲の先頭
+     * @param high   範囲の末尾 (この位置は含まない)
+     * @param depth  比較する文字の位置
+     * @param target 比較する文字
+     * @param upper  {@code target} より大きい見出しを探す場合は {@code true}
+     * @return 見出しの番号。該当する見出しが存在しない場合は {@code high}
+     */
+    private int bound(final int low, final int high, final int depth, final char target, final boolean upper) {
+        int from = low;
+        int to = high;
+        while (from < to) {
+            final int middle = (from + to) >>> 1;
+            final int value = this.readingCharAt(middle, depth);
+            if (value < target || upper && value == target) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * 見出しの読みの長さ。
+     *
+     * @param entry 見出しの番号
+     * @return 読みの長さ
+     */
+    int readingLength(final int entry) {
+        return this.buffer.getChar(this.entryStart(entry));
+    }
+
+    /**
+     * 見出しの第一候補。
+     *
+     * @param entry 見出しの番号
+     * @return 第一候補
+     */
+    String candidate(final int entry) {
+        final int readingStart = this.entryStart(entry);
+        final int candidateStart = readingStart + (1 + this.buffer.getChar(readingStart)) * Character.BYTES;
+        final char[] candidate = new char[this.buffer.getChar(candidateStart)];
+        for (int i = 0; i < candidate.length; i++) {
+            candidate[i] = this.buffer.getChar(candidateStart + (1 + i) * Character.BYTES);
+        }
+        return new String(candidate);
+    }
+
+    private int readingCharAt(final int entry, final int depth) {
+        final int entryStart = this.entryStart(entry);
+        if (this.buffer.getChar(entryStart) <= depth) {
+            return -1;
+        }
+        return this.buffer.getChar(entryStart + (1 + depth) * Character.BYTES);
+    }
+
+    private int entryStart(final int entry) {
+        return this.dataStart + this.buffer.getInt(HEADER_BYTES + entry * Integer.BYTES);
+    }
+}
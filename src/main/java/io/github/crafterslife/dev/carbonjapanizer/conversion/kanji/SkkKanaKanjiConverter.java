@@ -0,0 +1,97 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * SKK形式の辞書を使用し、ネットワークを使わずに変換するバックエンド。
+ *
+ * <p>各文節の先頭から辞書に前方一致する最も長い見出しを探し、その第一候補に置き換えることを繰り返す。
+ * どの見出しにも一致しない文字はそのまま出力する。</p>
+ */
+@NullMarked
+final class SkkKanaKanjiConverter implements KanaKanjiConverter {
+
+    private final SkkDictionary dictionary;
+
+    private SkkKanaKanjiConverter(final SkkDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * プラグインディレクトリの辞書を読み込み、このクラスのインスタンスを生成する。
+     *
+     * <p>初回や辞書の更新後は索引ファイルを作成するため、時間がかかる場合がある。</p>
+     *
+     * @param settings      SKK辞書の設定
+     * @param dataDirectory プラグインディレクトリ
+     * @param logger        ロギングサービス
+     * @return このクラスのインスタンス
+     * @throws IOException 辞書の読み込みに失敗した場合
+     */
+    static SkkKanaKanjiConverter open(
+            final PrimaryConfig.SkkBackendSettings settings,
+            final Path dataDirectory,
+            final LoggingService logger
+    ) throws IOException {
+        final Path source = dataDirectory.resolve(settings.dictionaryFile());
+        final Path index = dataDirectory.resolve(settings.dictionaryFile() + ".idx");
+        final SkkDictionary dictionary = SkkDictionary.open(source, Charset.forName(settings.encoding()), index);
+        logger.skkDictionaryLoaded(source.getFileName().toString(), dictionary.size());
+        return new SkkKanaKanjiConverter(dictionary);
+    }
+
+    @Override
+    public CompletableFuture<ConversionResult> convert(final List<String> segments) {
+        final List<String> converted = segments.stream()
+                .map(this::convert)
+                .toList();
+        return CompletableFuture.completedFuture(new ConversionResult(converted, List.of()));
+    }
+
+    private String convert(final String hiragana) {
+        final StringBuilder result = new StringBuilder(hiragana.length());
+        int position = 0;
+        while (position < hiragana.length()) {
+            final int entry = this.dictionary.longestPrefix(hiragana, position);
+            if (entry < 0) {
+                result.append(hiragana.charAt(position));
+                position++;
+            } else {
+                result.append(this.dictionary.candidate(entry));
+                position += this.dictionary.readingLength(entry);
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public void close() {
+        // メモリマップはガベージコレクションによって解放される
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * ひらがなから漢字への変換関連クラス
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
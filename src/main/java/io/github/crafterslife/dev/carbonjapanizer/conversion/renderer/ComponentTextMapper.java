@@ -0,0 +1,108 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.renderer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * {@link Component} ツリー内のテキストを書き換えるためのユーティリティ。
+ */
+@NullMarked
+public final class ComponentTextMapper {
+
+    private ComponentTextMapper() {
+    }
+
+    /**
+     * {@link Component} ツリー内のすべての {@link TextComponent} の内容を変換する。
+     *
+     * <p>{@link net.kyori.adventure.text.TextReplacementConfig} と同様に、テキストはノード単位で変換される。
+     * スタイルやツリー構造は変更しない。</p>
+     *
+     * @param component 変換対象の {@link Component}
+     * @param mapper    テキストの変換関数
+     * @return 変換後の {@link Component}
+     */
+    public static Component map(final Component component, final UnaryOperator<String> mapper) {
+        Component result = component;
+        if (component instanceof TextComponent textComponent) {
+            final String content = textComponent.content();
+            final String mapped = mapper.apply(content);
+            if (!mapped.equals(content)) {
+                result = textComponent.content(mapped);
+            }
+        }
+
+        final List<Component> children = component.children();
+        if (children.isEmpty()) {
+            return result;
+        }
+
+        final List<Component> mappedChildren = new ArrayList<>(children.size());
+        for (final Component child : children) {
+            mappedChildren.add(ComponentTextMapper.map(child, mapper));
+        }
+        return result.children(mappedChildren);
+    }
+
+    /**
+     * {@link Component} ツリー内のすべての {@link TextComponent} の内容をまとめて変換する。
+     *
+     * <p>ツリーを深さ優先で辿った順番にテキストを集めて一度に {@code mapper} へ渡し、
+     * 返されたテキストを同じ順番で元のノードへ書き戻す。
+     * ノードをまたいだ文脈を考慮して変換する場合に使用する。</p>
+     *
+     * @param component 変換対象の {@link Component}
+     * @param mapper    テキストの一覧を受け取り、同じ件数の変換結果を返す変換関数
+     * @return 変換後の {@link Component}
+     * @throws IllegalStateException {@code mapper} が返した件数が渡した件数と異なる場合
+     */
+    public static Component mapAll(final Component component, final UnaryOperator<List<String>> mapper)
+            throws IllegalStateException {
+        final List<String> contents = new ArrayList<>();
+        ComponentTextMapper.collect(component, contents);
+        if (contents.isEmpty()) {
+            return component;
+        }
+
+        final List<String> mapped = mapper.apply(contents);
+        if (mapped.size() != contents.size()) {
+            throw new IllegalStateException("Expected %d texts but got %d".formatted(contents.size(), mapped.size()));
+        }
+
+        final Iterator<String> iterator = mapped.iterator();
+        return ComponentTextMapper.map(component, content -> iterator.next());
+    }
+
+    private static void collect(final Component component, final List<String> contents) {
+        if (component instanceof TextComponent textComponent) {
+            contents.add(textComponent.content());
+        }
+        for (final Component child : component.children()) {
+            ComponentTextMapper.collect(child, contents);
+        }
+    }
+}
@@ -19,8 +19,12 @@
  */
 package io.github.crafterslife.dev.carbonjapanizer.conversion.renderer;
 
+import io.github.crafterslife.dev.carbonjapanizer.conversion.condition.ConvertCondition;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.KanjiConversionService;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.kanji.LoadShedder;
+import io.github.crafterslife.dev.carbonjapanizer.conversion.transliterator.RomajiTransliterator;
 import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
-import java.util.regex.Matcher;
+import java.util.concurrent.TimeUnit;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextReplacementConfig;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
@@ -33,28 +37,32 @@ import org.jspecify.annotations.NullMarked;
 public final class RomanComponentJapanizer {
 
     private final PrimaryConfig primaryConfig;
+    private final ConvertCondition convertCondition;
     private final TextReplacementConfig preventPrefixRemover;
     private final TextReplacementConfig forcePrefixReplace;
-    private final TextReplacementConfig romajiToHiragana;
-    private final TextReplacementConfig hiraganaToKanji;
+    private final RomajiTransliterator romajiToHiragana;
+    private final KanjiConversionService hiraganaToKanji;
 
     /**
      * このクラスのインスタンスを生成する。
      *
      * @param primaryConfig        メイン設定
+     * @param convertCondition     かな漢字変換を試行する条件
      * @param preventPrefixRemover かな漢字変換を防止するプレフィクスを削除するための {@link TextReplacementConfig}
      * @param forcePrefixReplace   かな漢字変換を強制するプレフィクスを削除するための {@link TextReplacementConfig}
-     * @param romajiToHiragana     ローマ字を日本語へ変換するための {@link TextReplacementConfig}
-     * @param hiraganaToKanji      ひらがなを漢字へ変換するための {@link TextReplacementConfig}
+     * @param romajiToHiragana     ローマ字をひらがなへ変換するための {@link RomajiTransliterator}
+     * @param hiraganaToKanji      ひらがなを漢字へ変換するための {@link KanjiConversionService}
      */
     public RomanComponentJapanizer(
             final PrimaryConfig primaryConfig,
+            final ConvertCondition convertCondition,
             final TextReplacementConfig preventPrefixRemover,
             final TextReplacementConfig forcePrefixReplace,
-            final TextReplacementConfig romajiToHiragana,
-            final TextReplacementConfig hiraganaToKanji
+            final RomajiTransliterator romajiToHiragana,
+            final KanjiConversionService hiraganaToKanji
     ) {
         this.primaryConfig = primaryConfig;
+        this.convertCondition = convertCondition;
         this.preventPrefixRemover = preventPrefixRemover;
         this.forcePrefixReplace = forcePrefixReplace;
         this.romajiToHiragana = romajiToHiragana;
@@ -78,12 +86,22 @@ public final class RomanComponentJapanizer {
 
         // メッセージが変換強制プレフィクスから始まっている、または変換条件を満たしている場合は、
         // 「プレフィクス削除 -> ローマ字 -> ひらがな -> 漢字」 の順番で変換を試行した結果を返す
+        // 漢字変換はメッセージ全体で一度だけ行い、期限に間に合わなかった場合はひらがなのまま返す
+        // 変換処理の負荷が高い間は、プレフィクスの削除のみを行い、変換の段階を省略する
         final String forcePrefix = this.primaryConfig.forcePrefix();
-        final Matcher japanizeMatcher = this.primaryConfig.convertCondition().matcher(plainMessage);
-        if (plainMessage.startsWith(forcePrefix) || japanizeMatcher.matches()) {
-            return input.replaceText(this.forcePrefixReplace).compact()
-                    .replaceText(this.romajiToHiragana).compact()
-                    .replaceText(this.hiraganaToKanji).compact();
+        if (plainMessage.startsWith(forcePrefix) || this.convertCondition.matches(plainMessage)) {
+            final long deadline = System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(this.primaryConfig.kanjiConversion().deadlineMillis());
+            final Component forceRemoved = input.replaceText(this.forcePrefixReplace).compact();
+            final LoadShedder.Mode mode = this.hiraganaToKanji.loadShedder().mode();
+            if (mode == LoadShedder.Mode.PASS_THROUGH) {
+                return forceRemoved;
+            }
+            final Component hiragana = ComponentTextMapper.map(forceRemoved, this.romajiToHiragana::transliterate).compact();
+            if (mode == LoadShedder.Mode.HIRAGANA_ONLY) {
+                return hiragana;
+            }
+            return ComponentTextMapper.mapAll(hiragana, texts -> this.hiraganaToKanji.convertWithin(texts, deadline)).compact();
         }
 
         // どの条件にも合致しない場合はそのまま返す
@@ -0,0 +1,151 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.transliterator;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * ローマ字表をトライ木に展開し、最長一致でひらがなへ変換する変換エンジン。
+ *
+ * <p>入力文字列を先頭から一度だけ走査し、各位置でローマ字表に存在する最も長いキーを置き換える。
+ * どのキーにも一致しない文字はそのまま出力する。
+ * キーを文字数の降順に並べた正規表現の選択と同じ結果を、バックトラックなしで得られる。</p>
+ */
+@NullMarked
+public final class RomajiTransliterator {
+
+    private final Node root;
+
+    private RomajiTransliterator(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * ローマ字表からこのクラスのインスタンスを生成する。
+     *
+     * @param romajiTable ローマ字をキー、ひらがなを値とするローマ字表
+     * @return このクラスのインスタンス
+     * @throws IllegalArgumentException ローマ字表に空文字のキーが含まれている場合
+     */
+    public static RomajiTransliterator create(final Map<String, String> romajiTable) throws IllegalArgumentException {
+        final Node root = new Node();
+        romajiTable.forEach((romaji, hiragana) -> {
+            if (romaji.isEmpty()) {
+                throw new IllegalArgumentException("Romaji key must not be empty");
+            }
+
+            Node node = root;
+            for (int i = 0; i < romaji.length(); i++) {
+                node = node.childOrCreate(romaji.charAt(i));
+            }
+            node.value = hiragana;
+        });
+        return new RomajiTransliterator(root);
+    }
+
+    /**
+     * 文字列内のローマ字をひらがなへ変換する。
+     *
+     * @param input 変換対象の文字列
+     * @return 変換後の文字列。変換対象が存在しない場合は {@code input} をそのまま返す
+     */
+    public String transliterate(final String input) {
+        final int length = input.length();
+        @Nullable StringBuilder result = null;
+        int position = 0;
+
+        while (position < length) {
+            @Nullable String matched = null;
+            int matchedEnd = position;
+
+            // 現在位置から辿れる限りトライ木を降り、最後に見つかった値を最長一致とする
+            @Nullable Node node = this.root;
+            for (int i = position; i < length; i++) {
+                node = node.child(input.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                if (node.value != null) {
+                    matched = node.value;
+                    matchedEnd = i + 1;
+                }
+            }
+
+            if (matched == null) {
+                if (result != null) {
+                    result.append(input.charAt(position));
+                }
+                position++;
+            } else {
+                if (result == null) {
+                    result = new StringBuilder(length + 16).append(input, 0, position);
+                }
+                result.append(matched);
+                position = matchedEnd;
+            }
+        }
+
+        return result == null ? input : result.toString();
+    }
+
+    /**
+     * トライ木のノード。子ノードは文字の昇順に並べた配列で保持する。
+     */
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private @Nullable String value;
+
+        private @Nullable Node child(final char label) {
+            final int index = Arrays.binarySearch(this.labels, label);
+            return index < 0 ? null : this.children[index];
+        }
+
+        private Node childOrCreate(final char label) {
+            final int index = Arrays.binarySearch(this.labels, label);
+            if (index >= 0) {
+                return this.children[index];
+            }
+
+            final int insertion = -(index + 1);
+            final int size = this.labels.length;
+            final char[] labels = new char[size + 1];
+            final Node[] children = new Node[size + 1];
+            System.arraycopy(this.labels, 0, labels, 0, insertion);
+            System.arraycopy(this.children, 0, children, 0, insertion);
+            System.arraycopy(this.labels, insertion, labels, insertion + 1, size - insertion);
+            System.arraycopy(this.children, insertion, children, insertion + 1, size - insertion);
+
+            final Node child = new Node();
+            labels[insertion] = label;
+            children[insertion] = child;
+            this.labels = labels;
+            this.children = children;
+            return child;
+        }
+    }
+}
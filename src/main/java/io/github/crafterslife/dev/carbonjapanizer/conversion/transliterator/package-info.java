@@ -0,0 +1,4 @@
+/**
+ * ローマ字をひらがなへ変換するための変換エンジン
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.transliterator;
@@ -76,6 +76,7 @@ public final class DataSourceFactory {
         hikariConfig.setUsername(this.primaryConfig.database().username());
         hikariConfig.setPassword(this.primaryConfig.database().password());
         hikariConfig.setPoolName("CarbonJapanizer-HikariPool");
+        hikariConfig.setMaximumPoolSize(this.primaryConfig.database().maximumPoolSize());
         hikariConfig.setThreadFactory(this.threadFactory());
 
         // データソースの生成
@@ -0,0 +1,362 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.database;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * データベースへ同時に実行する処理の数を、コネクションプールの大きさに制限する制限器。
+ *
+ * <p>上限に達している場合は、処理を有限の待ち行列に積んで空きができた順に実行する。
+ * 仮想スレッドをコネクションの取得で待たせないよう、待機中の処理にはスレッドを割り当てない。</p>
+ *
+ * <p>待ち行列が埋まっている場合は、処理を積まずに {@link RejectedExecutionException} で失敗させる。
+ * 待ち時間が上限を超えた処理も、実行中の処理が終わらない場合を含めて定期的に取り除き、実行せずに同じ例外で失敗させる。
+ * 呼び出し元は {@link #saturated()} によって、急がない処理の投入を控えることができる。</p>
+ */
+@NullMarked
+public final class DatabaseConcurrencyLimiter implements AutoCloseable {
+
+    private static final double WAIT_SMOOTHING = 0.2;
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("%s %s Thread #%%d".formatted("CarbonJapanizer", "DatabaseQueueSweeper"))
+            .build());
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Task<?>> queue = new ArrayDeque<>();
+    private final int limit;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    private int inFlight;
+    private double averageWaitNanos;
+    private long maxWaitNanos;
+    private boolean closed;
+
+    /**
+     * このクラスのインスタンスを生成する。
+     *
+     * @param settings データベース設定
+     * @param limit    同時に実行する処理の数の上限。コネクションプールの大きさを指定する
+     */
+    public DatabaseConcurrencyLimiter(final PrimaryConfig.DatabaseSettings settings, final int limit) {
+        this.limit = Math.max(1, limit);
+        this.queueSize = settings.queueSize();
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.queueTimeoutMillis());
+
+        // 待ち時間の上限に対して十分に細かい間隔で、期限を過ぎた処理を取り除く
+        final long sweepMillis = Math.clamp(settings.queueTimeoutMillis() / 10, 1, MAX_SWEEP_INTERVAL_MILLIS);
+        this.sweeper.scheduleWithFixedDelay(this::expireQueued, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 処理を実行する。上限に達している場合は待ち行列に積み、空きができてから実行する。
+     *
+     * @param task 実行する処理
+     * @param <T>  処理の結果の型
+     * @return 処理の結果。待ち行列が埋まっている場合や待ち時間を超えた場合は {@link RejectedExecutionException} で失敗する
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> task) {
+        final Task<T> submitted = new Task<>(task, new CompletableFuture<>(), System.nanoTime());
+        boolean start = false;
+
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                this.rejected.increment();
+                submitted.future().completeExceptionally(new RejectedExecutionException("Database limiter is closed"));
+                return submitted.future();
+            }
+            if (this.inFlight < this.limit) {
+                this.inFlight++;
+                this.recordWait(0);
+                start = true;
+            } else if (this.queue.size() >= this.queueSize) {
+                this.rejected.increment();
+                submitted.future().completeExceptionally(new RejectedExecutionException("Database queue is full"));
+                return submitted.future();
+            } else {
+                this.queue.addLast(submitted);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (start) {
+            this.start(submitted);
+        }
+        return submitted.future();
+    }
+
+    /**
+     * すべてのコネクションが使用中で、空きを待っている処理が存在するかどうか。
+     *
+     * @return 空きを待っている処理が存在する場合は {@code true}
+     */
+    public boolean saturated() {
+        this.lock.lock();
+        try {
+            return !this.queue.isEmpty();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 同時に実行する処理の数の上限。
+     *
+     * @return 同時に実行する処理の数の上限
+     */
+    public int limit() {
+        return this.limit;
+    }
+
+    /**
+     * 実行中の処理の数。
+     *
+     * @return 実行中の処理の数
+     */
+    public int inFlight() {
+        this.lock.lock();
+        try {
+            return this.inFlight;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 空きを待っている処理の数。
+     *
+     * @return 待ち行列の長さ
+     */
+    public int queueDepth() {
+        this.lock.lock();
+        try {
+            return this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 待ち行列に積むことができる処理の数の上限。
+     *
+     * @return 待ち行列の長さの上限
+     */
+    public int queueSize() {
+        return this.queueSize;
+    }
+
+    /**
+     * 実行を開始するまでに待った時間の指数移動平均 (ミリ秒)。
+     *
+     * @return 待ち時間の平均
+     */
+    public double averageWaitMillis() {
+        this.lock.lock();
+        try {
+            return this.averageWaitNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 実行を開始するまでに待った時間の最大値 (ミリ秒)。
+     *
+     * @return 待ち時間の最大値
+     */
+    public long maxWaitMillis() {
+        this.lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * 実行した処理の回数。
+     *
+     * @return 実行した処理の回数
+     */
+    public long executedCount() {
+        return this.executed.sum();
+    }
+
+    /**
+     * 待ち行列が埋まっていたため実行しなかった処理の回数。
+     *
+     * @return 実行しなかった処理の回数
+     */
+    public long rejectedCount() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * 待ち時間の上限を超えたため実行しなかった処理の回数。
+     *
+     * @return 実行しなかった処理の回数
+     */
+    public long timedOutCount() {
+        return this.timedOut.sum();
+    }
+
+    private void start(final Task<?> task) {
+        this.executed.increment();
+        this.executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                this.release();
+            }
+        });
+    }
+
+    /**
+     * 実行枠を返却し、待ち行列の先頭の処理に引き継ぐ。
+     *
+     * <p>待ち時間の上限を超えた処理は実行せずに失敗させ、次の処理に引き継ぐ。</p>
+     */
+    private void release() {
+        final List<Task<?>> expired = new ArrayList<>();
+        @Nullable Task<?> next = null;
+
+        this.lock.lock();
+        try {
+            final long now = System.nanoTime();
+            while (next == null && !this.queue.isEmpty()) {
+                final Task<?> candidate = this.queue.pollFirst();
+                final long waited = now - candidate.enqueuedAt();
+                if (waited > this.queueTimeoutNanos) {
+                    expired.add(candidate);
+                } else {
+                    this.recordWait(waited);
+                    next = candidate;
+                }
+            }
+            if (next == null) {
+                this.inFlight--;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        this.fail(expired);
+        if (next != null) {
+            this.start(next);
+        }
+    }
+
+    /**
+     * 待ち時間の上限を超えた処理を待ち行列の先頭から取り除き、失敗させる。
+     *
+     * <p>実行中の処理が応答しない場合でも、待ち行列の処理が上限を超えて待たされないようにする。</p>
+     */
+    private void expireQueued() {
+        final List<Task<?>> expired = new ArrayList<>();
+        this.lock.lock();
+        try {
+            final long now = System.nanoTime();
+            while (!this.queue.isEmpty() && now - this.queue.peekFirst().enqueuedAt() > this.queueTimeoutNanos) {
+                expired.add(this.queue.pollFirst());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        this.fail(expired);
+    }
+
+    private void fail(final List<Task<?>> expired) {
+        for (final Task<?> task : expired) {
+            this.timedOut.increment();
+            task.future().completeExceptionally(new RejectedExecutionException("Timed out waiting for a database connection"));
+        }
+    }
+
+    private void recordWait(final long waitedNanos) {
+        this.averageWaitNanos += (waitedNanos - this.averageWaitNanos) * WAIT_SMOOTHING;
+        this.maxWaitNanos = Math.max(this.maxWaitNanos, waitedNanos);
+    }
+
+    /**
+     * 新たな処理の受け付けを停止し、待ち行列の処理を失敗させた上で、実行中の処理の完了を待つ。
+     */
+    @Override
+    public void close() {
+        final List<Task<?>> remaining;
+        this.lock.lock();
+        try {
+            this.closed = true;
+            remaining = new ArrayList<>(this.queue);
+            this.queue.clear();
+        } finally {
+            this.lock.unlock();
+        }
+
+        this.sweeper.shutdownNow();
+        remaining.forEach(task -> task.future().completeExceptionally(new RejectedExecutionException("Database limiter is closed")));
+        this.executor.close();
+    }
+
+    /**
+     * 実行を待つ処理。
+     *
+     * @param supplier   実行する処理
+     * @param future     処理の結果
+     * @param enqueuedAt 処理を受け付けた時刻 ({@link System#nanoTime()})
+     * @param <T>        処理の結果の型
+     */
+    private record Task<T>(Supplier<T> supplier, CompletableFuture<T> future, long enqueuedAt) {
+
+        private void run() {
+            try {
+                this.future.complete(this.supplier.get());
+            } catch (final Throwable throwable) {
+                // 結果を待つ呼び出し元が戻れなくならないよう、Error も含めて必ず完了させる
+                this.future.completeExceptionally(throwable);
+            }
+        }
+    }
+}
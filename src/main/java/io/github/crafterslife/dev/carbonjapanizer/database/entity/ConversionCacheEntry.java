@@ -0,0 +1,34 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.database.entity;
+
+import java.time.Instant;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * ひらがなから漢字への変換結果のキャッシュエントリ
+ *
+ * @param hash     変換前のひらがなのSHA-256ハッシュ
+ * @param kanji    変換結果
+ * @param lastUsed 最後に使用された日時
+ */
+@NullMarked
+public record ConversionCacheEntry(byte[] hash, String kanji, Instant lastUsed) {
+}
@@ -0,0 +1,77 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.database.repository;
+
+import io.github.crafterslife.dev.carbonjapanizer.database.entity.ConversionCacheEntry;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindMethods;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * {@code CarbonJapanizer} のかな漢字変換キャッシュのリポジトリ
+ */
+@NullMarked
+public interface ConversionCacheRepository {
+
+    /**
+     * ハッシュから変換結果を検索する。
+     *
+     * @param hash 変換前のひらがなのSHA-256ハッシュ
+     * @return {@link Optional} でラップした変換結果
+     */
+    @SqlQuery("SELECT kanji FROM carbon_japanizer_conversions WHERE hash = :hash")
+    Optional<String> findKanji(byte[] hash);
+
+    /**
+     * 変換結果をまとめて保存する。対象のレコードがすでに存在する場合は更新する。
+     *
+     * @param entries 保存対象のエントリ
+     */
+    @SqlBatch("""
+            INSERT INTO carbon_japanizer_conversions (hash, kanji, last_used)
+            VALUES (:hash, :kanji, :lastUsed)
+            ON DUPLICATE KEY UPDATE kanji = :kanji, last_used = :lastUsed
+            """)
+    void saveAll(@BindMethods Collection<ConversionCacheEntry> entries);
+
+    /**
+     * 変換結果の最終使用日時をまとめて更新する。対象のレコードが存在しない場合は何もしない。
+     *
+     * @param hashes   更新対象の変換前のひらがなのSHA-256ハッシュ
+     * @param lastUsed 最終使用日時
+     */
+    @SqlBatch("UPDATE carbon_japanizer_conversions SET last_used = :lastUsed WHERE hash = :hash")
+    void touchAll(@Bind("hash") Collection<byte[]> hashes, @Bind("lastUsed") Instant lastUsed);
+
+    /**
+     * 指定日時より前から使用されていない変換結果を削除する。
+     *
+     * @param threshold 削除の基準となる日時
+     * @return 削除された件数
+     */
+    @SqlUpdate("DELETE FROM carbon_japanizer_conversions WHERE last_used < :threshold")
+    int deleteUnusedSince(Instant threshold);
+}
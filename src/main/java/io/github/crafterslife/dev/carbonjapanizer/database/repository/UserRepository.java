@@ -21,11 +21,15 @@ package io.github.crafterslife.dev.carbonjapanizer.database.repository;
 
 import io.github.crafterslife.dev.carbonjapanizer.database.jdbi.argument.BinaryUUIDArgumentFactory;
 import io.github.crafterslife.dev.carbonjapanizer.database.entity.CarbonJapanizerUser;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.jdbi.v3.sqlobject.config.RegisterArgumentFactory;
 import org.jdbi.v3.sqlobject.config.RegisterConstructorMapper;
+import org.jdbi.v3.sqlobject.customizer.BindList;
 import org.jdbi.v3.sqlobject.customizer.BindMethods;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jspecify.annotations.NullMarked;
@@ -46,6 +50,20 @@ public interface UserRepository {
     @RegisterConstructorMapper(CarbonJapanizerUser.class)
     Optional<CarbonJapanizerUser> findById(UUID uuid);
 
+    /**
+     * 複数のUUIDからユーザーデータをまとめて検索する。
+     *
+     * <p>ストレージに存在しないユーザーは結果に含まれない。
+     * {@code uuids} の件数がそのままプレースホルダーの数になるため、呼び出し側で適切な件数に分割すること。</p>
+     *
+     * @param uuids 検索対象のユーザーのUUID。空であってはならない
+     * @return 見つかったユーザーのリスト。順序は保証しない
+     */
+    @SqlQuery("SELECT id, japanize FROM carbon_japanizer_users WHERE id IN (<uuids>)")
+    @RegisterConstructorMapper(CarbonJapanizerUser.class)
+    @RegisterArgumentFactory(BinaryUUIDArgumentFactory.class)
+    List<CarbonJapanizerUser> findAllById(@BindList("uuids") Collection<UUID> uuids);
+
     /**
      * ユーザーデータを保存する。対象ユーザーのレコードがすでに存在する場合は更新する。
      *
@@ -58,4 +76,17 @@ public interface UserRepository {
             """)
     @RegisterArgumentFactory(BinaryUUIDArgumentFactory.class)
     void save(@BindMethods CarbonJapanizerUser user);
+
+    /**
+     * ユーザーデータをまとめて保存する。対象ユーザーのレコードがすでに存在する場合は更新する。
+     *
+     * @param users 保存対象のユーザー
+     */
+    @SqlBatch("""
+            INSERT INTO carbon_japanizer_users (id, name, japanize)
+            VALUES (:uuid, :name, :shouldJapanize)
+            ON DUPLICATE KEY UPDATE name = :name, japanize = :shouldJapanize
+            """)
+    @RegisterArgumentFactory(BinaryUUIDArgumentFactory.class)
+    void saveAll(@BindMethods Collection<CarbonJapanizerUser> users);
 }
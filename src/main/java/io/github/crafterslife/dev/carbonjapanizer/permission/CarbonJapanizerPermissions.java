@@ -28,6 +28,7 @@ import org.jspecify.annotations.NullMarked;
 public final class CarbonJapanizerPermissions {
 
     public static final String COMMAND_JAPANIZE = "carbon_japanizer.command.user.japanize";
+    public static final String COMMAND_STATS = "carbon_japanizer.command.admin.stats";
 
     private CarbonJapanizerPermissions() {
     }
@@ -21,7 +21,9 @@ package io.github.crafterslife.dev.carbonjapanizer.platform.paper;
 
 import io.github.crafterslife.dev.carbonjapanizer.CarbonJapanizer;
 import io.github.crafterslife.dev.carbonjapanizer.platform.paper.event.PaperLoginEventHandler;
+import io.github.crafterslife.dev.carbonjapanizer.platform.paper.event.PaperQuitEventHandler;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jspecify.annotations.NullMarked;
 
@@ -49,7 +51,22 @@ public final class PaperCarbonJapanizer extends JavaPlugin {
         final var loginHandler = new PaperLoginEventHandler(this.carbonJapanizer);
         Bukkit.getPluginManager().registerEvents(loginHandler, this);
 
+        // ログアウトイベントハンドラーを登録
+        final var quitHandler = new PaperQuitEventHandler(this.carbonJapanizer);
+        Bukkit.getPluginManager().registerEvents(quitHandler, this);
+
         // チャットイベントハンドラーを登録
         this.carbonJapanizer.registerChatEvent();
+
+        // すでにオンラインのプレイヤーのユーザーデータを読み込む
+        final var onlinePlayers = Bukkit.getOnlinePlayers().stream()
+                .map(Player::getUniqueId)
+                .toList();
+        this.carbonJapanizer.handleOnlinePlayers(onlinePlayers);
+    }
+
+    @Override
+    public void onDisable() {
+        this.carbonJapanizer.shutdown();
     }
 }
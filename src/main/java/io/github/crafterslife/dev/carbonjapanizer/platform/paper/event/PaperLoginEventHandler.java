@@ -21,8 +21,10 @@ package io.github.crafterslife.dev.carbonjapanizer.platform.paper.event;
 
 import io.github.crafterslife.dev.carbonjapanizer.CarbonJapanizer;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.jspecify.annotations.NullMarked;
 
 /**
@@ -45,13 +47,33 @@ public final class PaperLoginEventHandler implements Listener {
     /**
      * ログインしたプレイヤーをユーザーサービスでロードする。
      *
+     * <p>このイベントは非同期スレッドで呼び出されるため、読み込みの完了を待ってからログインを続行する。
+     * 待機時間は設定した上限時間に制限される。</p>
+     *
+     * <p>他のプラグインによる拒否を反映した最終的な結果を見るため、最後に呼び出される優先度で登録する。
+     * 拒否されたプレイヤーにはログアウトのイベントが発生せず、オンラインとして残り続けるためである。</p>
+     *
      * @param event ログインイベント
      */
-    @EventHandler
+    @EventHandler(priority = EventPriority.MONITOR)
     private void onLogin(final AsyncPlayerPreLoginEvent event) {
         if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
             final var uuid = event.getUniqueId();
-            this.carbonJapanizer.handleLogin(uuid);
+            this.carbonJapanizer.handleLogin(uuid).join();
+        }
+    }
+
+    /**
+     * 事前のログイン処理を通過した後に、ホワイトリストや満員などによって拒否されたプレイヤーをオンラインから外す。
+     *
+     * <p>拒否されたプレイヤーにはログアウトのイベントが発生しないため、ここでログアウトと同じ後始末を行う。</p>
+     *
+     * @param event ログインイベント
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onLoginResult(final PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            this.carbonJapanizer.handleQuit(event.getPlayer().getUniqueId());
         }
     }
 }
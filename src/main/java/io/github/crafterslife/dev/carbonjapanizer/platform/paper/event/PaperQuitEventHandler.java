@@ -0,0 +1,55 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.platform.paper.event;
+
+import io.github.crafterslife.dev.carbonjapanizer.CarbonJapanizer;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * {@code Paper} のログアウトイベントの操作を担う。
+ */
+@NullMarked
+public final class PaperQuitEventHandler implements Listener {
+
+    private final CarbonJapanizer carbonJapanizer;
+
+    /**
+     * このクラスのインスタンスを生成する
+     *
+     * @param carbonJapanizer {@link CarbonJapanizer}
+     */
+    public PaperQuitEventHandler(final CarbonJapanizer carbonJapanizer) {
+        this.carbonJapanizer = carbonJapanizer;
+    }
+
+    /**
+     * ログアウトしたプレイヤーをユーザーサービスのキャッシュから破棄する。
+     *
+     * @param event ログアウトイベント
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onQuit(final PlayerQuitEvent event) {
+        this.carbonJapanizer.handleQuit(event.getPlayer().getUniqueId());
+    }
+}
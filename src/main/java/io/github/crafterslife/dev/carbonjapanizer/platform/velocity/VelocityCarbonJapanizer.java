@@ -20,18 +20,24 @@
 package io.github.crafterslife.dev.carbonjapanizer.platform.velocity;
 
 import com.google.inject.Inject;
+import com.velocitypowered.api.event.PostOrder;
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.LoginEvent;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import io.github.crafterslife.dev.carbonjapanizer.CarbonJapanizer;
 import io.github.crafterslife.dev.carbonjapanizer.CarbonJapanizerDependency;
 import io.github.crafterslife.dev.carbonjapanizer.platform.velocity.command.VelocityCommandManagerFactory;
+import io.github.crafterslife.dev.carbonjapanizer.platform.velocity.event.VelocityDisconnectEventHandler;
 import io.github.crafterslife.dev.carbonjapanizer.platform.velocity.event.VelocityLoginEventHandler;
 import java.nio.file.Path;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.jspecify.annotations.NullMarked;
 import xyz.jpenilla.gremlin.runtime.platformsupport.VelocityClasspathAppender;
 
@@ -46,6 +52,8 @@ public final class VelocityCarbonJapanizer {
     private final ComponentLogger logger;
     private final Path dataDirectory;
 
+    private @MonotonicNonNull CarbonJapanizer carbonJapanizer;
+
     /**
      * このクラスのインスタンスを生成する。
      *
@@ -75,16 +83,35 @@ public final class VelocityCarbonJapanizer {
         classpathAppender.append(dependencies);
 
         final var carbonJapanizer = new CarbonJapanizer(this.logger, this.dataDirectory);
+        this.carbonJapanizer = carbonJapanizer;
 
         // ログインイベントハンドラーを登録
+        // 他のプラグインによる拒否を反映した結果を見るため、最後に呼び出す
         final var loginHandler = new VelocityLoginEventHandler(carbonJapanizer);
-        this.server.getEventManager().register(this, LoginEvent.class, loginHandler);
+        this.server.getEventManager().register(this, LoginEvent.class, PostOrder.LAST, loginHandler);
+
+        // 切断イベントハンドラーを登録
+        final var disconnectHandler = new VelocityDisconnectEventHandler(carbonJapanizer);
+        this.server.getEventManager().register(this, DisconnectEvent.class, disconnectHandler);
 
         // Carbonイベントハンドラーを登録
         carbonJapanizer.registerChatEvent();
 
+        // すでにオンラインのプレイヤーのユーザーデータを読み込む
+        final var onlinePlayers = this.server.getAllPlayers().stream()
+                .map(Player::getUniqueId)
+                .toList();
+        carbonJapanizer.handleOnlinePlayers(onlinePlayers);
+
         // コマンドを登録
         final var commandManagerFactory = new VelocityCommandManagerFactory(this.pluginContainer, this.server);
         carbonJapanizer.registerCommands(commandManagerFactory);
     }
+
+    @Subscribe
+    private void onShutdown(final ProxyShutdownEvent event) {
+        if (this.carbonJapanizer != null) {
+            this.carbonJapanizer.shutdown();
+        }
+    }
 }
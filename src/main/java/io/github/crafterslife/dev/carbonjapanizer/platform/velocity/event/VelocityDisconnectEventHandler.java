@@ -0,0 +1,56 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.platform.velocity.event;
+
+import com.velocitypowered.api.event.EventTask;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import io.github.crafterslife.dev.carbonjapanizer.CarbonJapanizer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@code Velocity} の切断イベントの操作を担う。
+ */
+@NullMarked
+public final class VelocityDisconnectEventHandler implements VelocityEventHandler<DisconnectEvent> {
+
+    private final CarbonJapanizer carbonJapanizer;
+
+    /**
+     * このクラスのインスタンスを生成する
+     *
+     * @param carbonJapanizer {@link CarbonJapanizer}
+     */
+    public VelocityDisconnectEventHandler(final CarbonJapanizer carbonJapanizer) {
+        this.carbonJapanizer = carbonJapanizer;
+    }
+
+    /**
+     * 切断したプレイヤーをユーザーサービスのキャッシュから破棄する。
+     *
+     * @param event 切断イベント
+     * @return キャッシュの破棄はブロックしないため、常に {@code null}
+     */
+    @Override
+    public @Nullable EventTask executeAsync(final DisconnectEvent event) {
+        this.carbonJapanizer.handleQuit(event.getPlayer().getUniqueId());
+        return null;
+    }
+}
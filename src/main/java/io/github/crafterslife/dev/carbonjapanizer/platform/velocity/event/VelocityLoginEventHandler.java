@@ -24,6 +24,7 @@ import com.velocitypowered.api.event.connection.LoginEvent;
 import io.github.crafterslife.dev.carbonjapanizer.CarbonJapanizer;
 import java.util.UUID;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 /**
  * {@code Velocity} のログインイベントの操作を担う。
@@ -42,13 +43,22 @@ public final class VelocityLoginEventHandler implements VelocityEventHandler<Log
         this.carbonJapanizer = carbonJapanizer;
     }
 
+    /**
+     * ログインしたプレイヤーをユーザーサービスでロードする。
+     *
+     * <p>読み込みが完了するまでイベントの処理を保留し、スレッドをブロックせずにログインを待機させる。
+     * 待機時間は設定した上限時間に制限される。</p>
+     *
+     * @param event ログインイベント
+     * @return 読み込みの完了を待つ {@link EventTask}。ログインが許可されていない場合は {@code null}
+     */
     @Override
-    public EventTask executeAsync(final LoginEvent event) {
-        return EventTask.async(() -> {
-            if (event.getResult().isAllowed()) {
-                final UUID playerUUID = event.getPlayer().getUniqueId();
-                this.carbonJapanizer.handleLogin(playerUUID);
-            }
-        });
+    public @Nullable EventTask executeAsync(final LoginEvent event) {
+        if (!event.getResult().isAllowed()) {
+            return null;
+        }
+
+        final UUID playerUUID = event.getPlayer().getUniqueId();
+        return EventTask.resumeWhenComplete(this.carbonJapanizer.handleLogin(playerUUID));
     }
 }
@@ -35,6 +35,8 @@ import org.spongepowered.configurate.objectmapping.meta.Comment;
 @SuppressWarnings({"FieldMayBeFinal", "FieldCanBeLocal", "CheckStyle"})
 public final class PrimaryConfig {
 
+    public static final String DEFAULT_CONVERT_CONDITION = "^(?!.*[\\t\\p{IsHiragana}\\p{IsKatakana}\\p{IsHan}])(?:a|i|u|e|o|ka|ki|ku|ke|ko|sa|shi|su|se|so|ta|chi|tsu|te|to|na|ni|nu|ne|no|ha|hi|fu|he|ho|ma|mi|mu|me|mo|ya|yu|yo|ra|ri|ru|re|ro|wa|wo|ga|gi|gu|ge|go|za|ji|zu|ze|zo|da|de|do|ba|bi|bu|be|bo|pa|pi|pu|pe|po|kya|kyu|kyo|sha|shu|sho|cha|chu|cho|nya|nyu|nyo|hya|hyu|hyo|mya|myu|myo|rya|ryu|ryo|gya|gyu|gyo|ja|ju|jo|bya|byu|byo|pya|pyu|pyo|n(?![aiueoyn])|nn|([ckstnhmyrwgzjdbp])\\1){3,}.*$";
+
     @ConfigSerializable
     public record DatabaseSettings(
 
@@ -49,10 +51,434 @@ public final class PrimaryConfig {
             String username,
 
             @Comment("The connection password.")
-            String password
+            String password,
+
+            @Comment("""
+                    The maximum number of pooled connections.
+                    Database work is limited to this many concurrent operations; the rest wait in a queue.
+                    Values below 1 fall back to 10.
+                    """)
+            int maximumPoolSize,
+
+            @Comment("""
+                    The maximum number of operations waiting for a connection.
+                    When the queue is full, new operations fail immediately instead of waiting.
+                    Values below 1 fall back to 256.
+                    """)
+            int queueSize,
+
+            @Comment("""
+                    The maximum time an operation waits in the queue, in milliseconds.
+                    Operations that waited longer fail without running.
+                    Values below 1 fall back to 5000.
+                    """)
+            long queueTimeoutMillis
+    ) {
+
+        public static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+        public static final int DEFAULT_QUEUE_SIZE = 256;
+        public static final long DEFAULT_QUEUE_TIMEOUT_MILLIS = 5000;
+
+        /**
+         * 1未満の値を既定値に置き換える。
+         *
+         * <p>これらの項目を追加する前の設定ファイルでは値が存在せず、0として読み込まれるため。</p>
+         */
+        public DatabaseSettings {
+            if (maximumPoolSize < 1) {
+                maximumPoolSize = DEFAULT_MAXIMUM_POOL_SIZE;
+            }
+            if (queueSize < 1) {
+                queueSize = DEFAULT_QUEUE_SIZE;
+            }
+            if (queueTimeoutMillis < 1) {
+                queueTimeoutMillis = DEFAULT_QUEUE_TIMEOUT_MILLIS;
+            }
+        }
+    }
+
+    @ConfigSerializable
+    public record UserCacheSettings(
+
+            @Comment("""
+                    ユーザーデータをキャッシュする件数の上限
+                    0の場合は、オンラインのプレイヤー数に応じて自動的に調整します。
+                    有効な値: 0以上の整数
+                    """)
+            long maximumSize,
+
+            @Comment("""
+                    自動的に調整する場合の、キャッシュする件数の下限
+                    有効な値: 1以上の整数
+                    """)
+            long minimumSize,
+
+            @Comment("""
+                    自動的に調整する場合の、オンラインのプレイヤー1人あたりのキャッシュする件数
+                    ログアウト直後のプレイヤーや、まだ保存されていないプレイヤーの分を見込んで1より大きい値を指定します。
+                    有効な値: 1以上の小数
+                    """)
+            double entriesPerOnlinePlayer,
+
+            @Comment("""
+                    保存済みのユーザーデータを、最後に参照されてからキャッシュに保持する時間 (分)
+                    有効な値: 1以上の整数
+                    """)
+            long storedExpireMinutes,
+
+            @Comment("""
+                    まだ保存されていないユーザーの標準設定値を、キャッシュに保持する時間 (分)
+                    他のサーバーが同じデータベースに保存した内容を反映するため、短めに設定します。
+                    有効な値: 1以上の整数
+                    """)
+            long missingExpireMinutes
     ) {
     }
 
+    public enum KanjiBackend {
+        GOOGLE,
+        LOCAL_HTTP,
+        SKK
+    }
+
+    @ConfigSerializable
+    public record GoogleBackendSettings(
+
+            @Comment("""
+                    変換サーバーのURL
+                    同じ形式で応答するサーバーを用意した場合は、そのURLを指定します。
+                    """)
+            String url,
+
+            @Comment("""
+                    変換サーバーへの接続タイムアウト (ミリ秒)
+                    有効な値: 1以上の整数
+                    """)
+            long connectTimeoutMillis,
+
+            @Comment("""
+                    変換サーバーからの応答を待つタイムアウト (ミリ秒)
+                    有効な値: 1以上の整数
+                    """)
+            long requestTimeoutMillis,
+
+            @Comment("""
+                    同時に送信するリクエストの上限
+                    有効な値: 1以上の整数
+                    """)
+            int maxConcurrentRequests
+    ) {
+    }
+
+    @ConfigSerializable
+    public record LocalHttpBackendSettings(
+
+            @Comment("""
+                    変換サーバーのURL
+                    変換対象の文節をJSONの文字列配列としてPOSTし、同じ件数の変換結果を文字列配列として受け取ります。
+                    例: ["きょうは", "いいてんき"] -> ["今日は", "いい天気"]
+                    """)
+            String url,
+
+            @Comment("""
+                    変換サーバーへの接続タイムアウト (ミリ秒)
+                    有効な値: 1以上の整数
+                    """)
+            long connectTimeoutMillis,
+
+            @Comment("""
+                    変換サーバーからの応答を待つタイムアウト (ミリ秒)
+                    有効な値: 1以上の整数
+                    """)
+            long requestTimeoutMillis,
+
+            @Comment("""
+                    同時に送信するリクエストの上限
+                    有効な値: 1以上の整数
+                    """)
+            int maxConcurrentRequests
+    ) {
+    }
+
+    @ConfigSerializable
+    public record SkkBackendSettings(
+
+            @Comment("""
+                    プラグインディレクトリに配置したSKK形式の辞書ファイル名
+                    初回の読み込み時と辞書の更新時に、同じ名前に「.idx」を付けた索引ファイルを作成します。
+                    """)
+            String dictionaryFile,
+
+            @Comment("""
+                    辞書ファイルの文字コード
+                    有効な値: EUC-JP | UTF-8 など
+                    """)
+            String encoding
+    ) {
+    }
+
+    @ConfigSerializable
+    public record ConcurrencyLimitSettings(
+
+            @Comment("""
+                    同時に送信するリクエスト数の初期値
+                    応答時間と失敗に応じて、min-limitからmax-limitの範囲で自動的に調整されます。
+                    有効な値: 1以上の整数
+                    """)
+            int initialLimit,
+
+            @Comment("""
+                    同時に送信するリクエスト数の下限
+                    有効な値: 1以上の整数
+                    """)
+            int minLimit,
+
+            @Comment("""
+                    同時に送信するリクエスト数の上限
+                    有効な値: min-limit以上の整数
+                    """)
+            int maxLimit,
+
+            @Comment("""
+                    この時間より応答が遅い場合は、同時に送信するリクエスト数を減らす (ミリ秒)
+                    有効な値: 1以上の整数
+                    """)
+            long latencyThresholdMillis,
+
+            @Comment("""
+                    失敗や遅延が発生したときに、同時に送信するリクエスト数に掛ける比率
+                    有効な値: 0より大きく1未満の小数
+                    """)
+            double backoffRatio,
+
+            @Comment("""
+                    上限に達しているときに空きを待つことができるリクエストの数
+                    待ち行列が埋まっている場合は、ひらがなのままメッセージを送信します。
+                    有効な値: 0以上の整数
+                    """)
+            int queueSize,
+
+            @Comment("""
+                    空きを待つ最大時間 (ミリ秒)
+                    有効な値: 0以上の整数
+                    """)
+            long queueTimeoutMillis
+    ) {
+    }
+
+    @ConfigSerializable
+    public record HedgingSettings(
+
+            @Comment("""
+                    応答が遅いリクエストと同じリクエストをもう一度送信し、先に返った結果を使用するかどうか
+                    有効な値: boolean (true|false)
+                    """)
+            boolean enabled,
+
+            @Comment("""
+                    直近の応答時間のうち、このパーセンタイルを過ぎても応答がない場合にもう一度送信する
+                    有効な値: 1から99の小数
+                    """)
+            double percentile,
+
+            @Comment("""
+                    リクエスト数に対する、もう一度送信するリクエストの割合の上限
+                    有効な値: 0以上1以下の小数
+                    """)
+            double maxHedgeRatio
+    ) {
+    }
+
+    @ConfigSerializable
+    public record LoadSheddingSettings(
+
+            @Comment("""
+                    変換処理の負荷が高いときに、一時的に漢字変換やローマ字変換を停止するかどうか
+                    有効な値: boolean (true|false)
+                    """)
+            boolean enabled,
+
+            @Comment("""
+                    漢字変換を停止し、ひらがなのまま送信する平均変換時間 (ミリ秒)
+                    有効な値: 1以上の整数
+                    """)
+            long hiraganaOnlyLatencyMillis,
+
+            @Comment("""
+                    漢字変換を停止し、ひらがなのまま送信する実行中の変換の数
+                    有効な値: 1以上の整数
+                    """)
+            int hiraganaOnlyInFlight,
+
+            @Comment("""
+                    ローマ字変換も停止し、入力されたまま送信する平均変換時間 (ミリ秒)
+                    有効な値: hiragana-only-latency-millis以上の整数
+                    """)
+            long passThroughLatencyMillis,
+
+            @Comment("""
+                    ローマ字変換も停止し、入力されたまま送信する実行中の変換の数
+                    有効な値: hiragana-only-in-flight以上の整数
+                    """)
+            int passThroughInFlight,
+
+            @Comment("""
+                    停止の基準値に対する、停止を解除する値の割合
+                    平均変換時間と実行中の変換の数が、どちらも基準値にこの割合を掛けた値を下回ると一段階ずつ解除します。
+                    有効な値: 0より大きく1未満の小数
+                    """)
+            double recoveryRatio,
+
+            @Comment("""
+                    停止を解除するまでに最低限待機する時間 (ミリ秒)
+                    有効な値: 0以上の整数
+                    """)
+            long recoveryMillis,
+
+            @Comment("""
+                    停止と解除をログに記録する最短の間隔 (ミリ秒)
+                    この間隔より短い切り替えは記録せず、次の記録に省略した回数を含めます。
+                    有効な値: 0以上の整数
+                    """)
+            long announceIntervalMillis
+    ) {
+    }
+
+    @ConfigSerializable
+    public record KanjiConversionSettings(
+
+            @Comment("""
+                    使用する変換サーバー
+                    有効な値: GOOGLE (Google CGI API for Japanese Input) | LOCAL_HTTP (local-httpで設定した変換サーバー) | SKK (skkで設定した辞書)
+                    """)
+            KanjiBackend backend,
+
+            @Comment("Google CGI API for Japanese Input の設定")
+            GoogleBackendSettings google,
+
+            @Comment("自前で用意した変換サーバーの設定")
+            LocalHttpBackendSettings localHttp,
+
+            @Comment("ネットワークを使用せずに変換するSKK辞書の設定")
+            SkkBackendSettings skk,
+
+            @Comment("""
+                    一つのメッセージの漢字変換を待つ上限時間 (ミリ秒)
+                    この時間内に変換が完了しなかった場合は、ひらがなのままメッセージを送信します。
+                    遅れて届いた変換結果はキャッシュに保存され、次回以降に使用されます。
+                    有効な値: 1以上の整数
+                    """)
+            long deadlineMillis,
+
+            @Comment("""
+                    長いメッセージを分割して並行に変換する文字数
+                    この文字数を超えるメッセージは句読点 (。、！？) の位置で分割し、それぞれを同時に変換します。
+                    0の場合は分割しません。
+                    有効な値: 0以上の整数
+                    """)
+            int chunkThreshold,
+
+            @Comment("変換サーバーへ同時に送信するリクエスト数の制限")
+            ConcurrencyLimitSettings concurrencyLimit,
+
+            @Comment("応答が遅いリクエストをもう一度送信する設定")
+            HedgingSettings hedging,
+
+            @Comment("変換処理の負荷が高いときに、一時的に変換を停止する設定")
+            LoadSheddingSettings loadShedding,
+
+            @Comment("""
+                    変換サーバーへのリクエストを一時的に停止するまでの連続失敗回数
+                    停止中はリクエストを送信せず、ひらがなのままメッセージを送信します。
+                    有効な値: 1以上の整数
+                    """)
+            int circuitBreakerFailureThreshold,
+
+            @Comment("""
+                    リクエストを停止してから再試行するまでの時間 (ミリ秒)
+                    再試行に失敗するたびに、この時間は倍になります。
+                    有効な値: 1以上の整数
+                    """)
+            long circuitBreakerOpenMillis,
+
+            @Comment("""
+                    リクエストを停止してから再試行するまでの最大時間 (ミリ秒)
+                    有効な値: circuit-breaker-open-millis以上の整数
+                    """)
+            long circuitBreakerMaxOpenMillis,
+
+            @Comment("""
+                    変換結果をキャッシュする最大件数
+                    有効な値: 0以上の整数 (0の場合はキャッシュしない)
+                    """)
+            long cacheMaximumSize,
+
+            @Comment("""
+                    最後に参照されてから変換結果をキャッシュから破棄するまでの時間 (分)
+                    有効な値: 1以上の整数
+                    """)
+            long cacheExpireMinutes,
+
+            @Comment("""
+                    文節ごとの変換結果をキャッシュする最大件数
+                    既知の文節だけで構成された文章は、変換サーバーを使わずに変換します。
+                    有効な値: 0以上の整数 (0の場合はキャッシュしない)
+                    """)
+            long phraseCacheMaximumSize,
+
+            @Comment("""
+                    よく変換される語句をファイルに保存し、起動時にキャッシュへ読み込む件数
+                    有効な値: 0以上の整数 (0の場合は保存しない)
+                    """)
+            int hotPhrasesSize,
+
+            @Comment("""
+                    よく変換される語句をファイルに保存する間隔 (分)
+                    有効な値: 1以上の整数 (1未満の場合は10)
+                    """)
+            long hotPhrasesSaveMinutes,
+
+            @Comment("""
+                    変換結果をデータベースにも保存し、複数のサーバー間や再起動後に共有するかどうか
+                    有効な値: boolean (true|false)
+                    """)
+            boolean persistentCache,
+
+            @Comment("""
+                    データベースへ変換結果をまとめて書き込む間隔 (秒)
+                    有効な値: 1以上の整数 (1未満の場合は5)
+                    """)
+            long persistentCacheFlushSeconds,
+
+            @Comment("""
+                    データベースに保存した変換結果を、最後に使用されてから削除するまでの日数
+                    有効な値: 1以上の整数 (1未満の場合は30)
+                    """)
+            long persistentCacheExpireDays
+    ) {
+
+        public static final long DEFAULT_HOT_PHRASES_SAVE_MINUTES = 10;
+        public static final long DEFAULT_PERSISTENT_CACHE_FLUSH_SECONDS = 5;
+        public static final long DEFAULT_PERSISTENT_CACHE_EXPIRE_DAYS = 30;
+
+        /**
+         * 定期実行の間隔に使用する項目のうち、1未満の値を既定値に置き換える。
+         *
+         * <p>0以下の間隔では定期実行を登録できず、プラグインの有効化に失敗するため。</p>
+         */
+        public KanjiConversionSettings {
+            if (hotPhrasesSaveMinutes < 1) {
+                hotPhrasesSaveMinutes = DEFAULT_HOT_PHRASES_SAVE_MINUTES;
+            }
+            if (persistentCacheFlushSeconds < 1) {
+                persistentCacheFlushSeconds = DEFAULT_PERSISTENT_CACHE_FLUSH_SECONDS;
+            }
+            if (persistentCacheExpireDays < 1) {
+                persistentCacheExpireDays = DEFAULT_PERSISTENT_CACHE_EXPIRE_DAYS;
+            }
+        }
+    }
+
     @Comment("""
             かな漢字変換の標準設定値
             この値がtrueの場合は標準でかな漢字変換が有効になります。
@@ -61,14 +487,33 @@ public final class PrimaryConfig {
 
     private boolean defaultJapanize = true;
 
+    @Comment("""
+            ログイン時にユーザーデータの読み込みを待つ上限時間 (ミリ秒)
+            読み込みが完了するまでプレイヤーのログインを保留し、チャットの前にユーザーデータを用意します。
+            この時間内に読み込みが完了しなかった場合はログインを続行し、読み込みが完了するまでは標準設定値を使用します。
+            有効な値: 0以上の整数
+            """)
+    private long loginLoadTimeoutMillis = 3000;
+
+    @Comment("""
+            ユーザーデータの変更をデータベースへまとめて書き込む間隔 (秒)
+            間隔内に同じユーザーが複数回変更した場合は、最後の変更のみを書き込みます。
+            有効な値: 1以上の整数
+            """)
+    private long userSaveFlushSeconds = 5;
+
+    @Comment("ユーザーデータのキャッシュ設定")
+    private UserCacheSettings userCache = new UserCacheSettings(0, 200, 1.5, 60, 5);
+
     @Comment("""
             かな漢字変換を試行する条件となる正規表現パターン
             送信メッセージがこの正規表現に合致した場合に限りかな漢字変換が試行されます。
             初期値は、空文字、ひらがな、カタカナ、漢字を含まない事を前提とした３文字以上のローマ字表記を検索する正規表現です。
             初期値で合致しない例: hi! | un | ¯\\_(ツ)_/¯ | watashiha unitarou desu.
+            初期値から変更されていない場合は、正規表現の代わりに同じ判定を一度の走査で行う組み込みの判定器を使用します。
             有効な値: 正規表現
             """)
-    private Pattern convertCondition = Pattern.compile("^(?!.*[\\t\\p{IsHiragana}\\p{IsKatakana}\\p{IsHan}])(?:a|i|u|e|o|ka|ki|ku|ke|ko|sa|shi|su|se|so|ta|chi|tsu|te|to|na|ni|nu|ne|no|ha|hi|fu|he|ho|ma|mi|mu|me|mo|ya|yu|yo|ra|ri|ru|re|ro|wa|wo|ga|gi|gu|ge|go|za|ji|zu|ze|zo|da|de|do|ba|bi|bu|be|bo|pa|pi|pu|pe|po|kya|kyu|kyo|sha|shu|sho|cha|chu|cho|nya|nyu|nyo|hya|hyu|hyo|mya|myu|myo|rya|ryu|ryo|gya|gyu|gyo|ja|ju|jo|bya|byu|byo|pya|pyu|pyo|n(?![aiueoyn])|nn|([ckstnhmyrwgzjdbp])\\1){3,}.*$");
+    private Pattern convertCondition = Pattern.compile(DEFAULT_CONVERT_CONDITION);
 
     @Comment("""
             かな漢字変換を強制するプレフィックス
@@ -97,16 +542,54 @@ public final class PrimaryConfig {
             """)
     private String messageFormat = "<japanized_message><hover:show_text:'<previous_message>'><#1E88E5>🔄</#1E88E5></hover>";
 
+    @Comment("ひらがなから漢字への変換設定")
+    private KanjiConversionSettings kanjiConversion = new KanjiConversionSettings(
+            KanjiBackend.GOOGLE,
+            new GoogleBackendSettings("https://www.google.com/transliterate", 2000, 3000, 16),
+            new LocalHttpBackendSettings("http://127.0.0.1:8080/convert", 500, 1000, 32),
+            new SkkBackendSettings("SKK-JISYO.L", "EUC-JP"),
+            1000,
+            64,
+            new ConcurrencyLimitSettings(8, 1, 64, 500, 0.9, 16, 250),
+            new HedgingSettings(false, 95, 0.1),
+            new LoadSheddingSettings(true, 800, 32, 3000, 64, 0.5, 10000, 60000),
+            5,
+            5000,
+            300000,
+            10000,
+            360,
+            50000,
+            2000,
+            KanjiConversionSettings.DEFAULT_HOT_PHRASES_SAVE_MINUTES,
+            true,
+            KanjiConversionSettings.DEFAULT_PERSISTENT_CACHE_FLUSH_SECONDS,
+            KanjiConversionSettings.DEFAULT_PERSISTENT_CACHE_EXPIRE_DAYS);
+
     @Comment("データベース設定")
     private DatabaseSettings database = new DatabaseSettings(
             "jdbc:h2:{plugin_directory}/carbon-japanizer-h2;MODE=MySQL",
             "user_name",
-            "password");
+            "password",
+            DatabaseSettings.DEFAULT_MAXIMUM_POOL_SIZE,
+            DatabaseSettings.DEFAULT_QUEUE_SIZE,
+            DatabaseSettings.DEFAULT_QUEUE_TIMEOUT_MILLIS);
 
     public boolean defaultJapanize() {
         return this.defaultJapanize;
     }
 
+    public long loginLoadTimeoutMillis() {
+        return this.loginLoadTimeoutMillis;
+    }
+
+    public long userSaveFlushSeconds() {
+        return this.userSaveFlushSeconds;
+    }
+
+    public UserCacheSettings userCache() {
+        return this.userCache;
+    }
+
     public Pattern convertCondition() {
         return this.convertCondition;
     }
@@ -123,6 +606,10 @@ public final class PrimaryConfig {
         return this.messageFormat;
     }
 
+    public KanjiConversionSettings kanjiConversion() {
+        return this.kanjiConversion;
+    }
+
     public DatabaseSettings database() {
         return this.database;
     }
@@ -116,6 +116,26 @@ public interface LoggingService {
     @Value(locale = Locales.JA_JP, content = "<total_locale>件の翻訳を読み込みました: <locales>")
     void translationLoaded(int totalLocale, Collection<Locale> locales);
 
+    /**
+     * かな漢字変換の条件に組み込みの判定器を使用するときに記録するメッセージ
+     */
+    @LogLevel(Level.INFO)
+    @Key("carbon_japanizer.japanize.condition.builtin")
+    @Value(locale = Locales.EN_US, content = "Using the built-in romaji classifier for the conversion condition.")
+    @Value(locale = Locales.JA_JP, content = "かな漢字変換の条件に組み込みのローマ字判定器を使用します。")
+    void convertConditionBuiltin();
+
+    /**
+     * かな漢字変換の条件に設定された正規表現を使用するときに記録するメッセージ
+     *
+     * @param pattern 設定された正規表現
+     */
+    @LogLevel(Level.INFO)
+    @Key("carbon_japanizer.japanize.condition.custom")
+    @Value(locale = Locales.EN_US, content = "Using the customised regular expression for the conversion condition: <pattern>")
+    @Value(locale = Locales.JA_JP, content = "かな漢字変換の条件に設定された正規表現を使用します: <pattern>")
+    void convertConditionCustom(String pattern);
+
     /**
      * HikariCPのスレッドで未処理の例外が発生したときに記録するメッセージ
      *
@@ -141,15 +161,214 @@ public interface LoggingService {
     ThrowableLogger japanizeKanaToKanjiFailed(String text);
 
     /**
-     * ユーザーデータの保存に失敗したときに記録するメッセージ
+     * SKK辞書の読み込みが完了したときに記録するメッセージ
+     *
+     * @param fileName 辞書ファイル名
+     * @param entries  見出しの件数
+     */
+    @LogLevel(Level.INFO)
+    @Key("carbon_japanizer.japanize.kana-to-kanji.skk.loaded")
+    @Value(locale = Locales.EN_US, content = "Loaded <entries> entries from the SKK dictionary <file_name>.")
+    @Value(locale = Locales.JA_JP, content = "SKK辞書「<file_name>」から<entries>件の見出しを読み込みました。")
+    void skkDictionaryLoaded(String fileName, int entries);
+
+    /**
+     * 変換サーバーへのリクエストを停止したときに記録するメッセージ
+     *
+     * @param failures    連続して失敗した回数
+     * @param retryMillis 再試行するまでの時間 (ミリ秒)
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.japanize.kana-to-kanji.circuit.opened")
+    @Value(locale = Locales.EN_US, content = "Kanji conversion failed <failures> times in a row. Requests are paused for <retry_millis> ms.")
+    @Value(locale = Locales.JA_JP, content = "漢字変換が<failures>回連続で失敗しました。<retry_millis>ミリ秒の間リクエストを停止します。")
+    void kanjiCircuitOpened(int failures, long retryMillis);
+
+    /**
+     * 変換サーバーへのリクエストを再開したときに記録するメッセージ
+     */
+    @LogLevel(Level.INFO)
+    @Key("carbon_japanizer.japanize.kana-to-kanji.circuit.closed")
+    @Value(locale = Locales.EN_US, content = "Kanji conversion has recovered. Requests are resumed.")
+    @Value(locale = Locales.JA_JP, content = "漢字変換が回復しました。リクエストを再開します。")
+    void kanjiCircuitClosed();
+
+    /**
+     * 負荷が高いために変換処理を縮退したときに記録するメッセージ
+     *
+     * @param mode          切り替え後の動作
+     * @param latencyMillis 変換にかかっている平均時間 (ミリ秒)
+     * @param inFlight      実行中の変換の数
+     * @param suppressed    前回の記録以降に記録を省略した切り替えの回数
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.japanize.load-shedding.degraded")
+    @Value(locale = Locales.EN_US, content = "Conversion is overloaded (average <latency_millis> ms, <in_flight> in flight). Switched to <mode> mode. (<suppressed> changes not logged)")
+    @Value(locale = Locales.JA_JP, content = "変換処理の負荷が高くなっています (平均<latency_millis>ミリ秒、実行中<in_flight>件)。<mode>に切り替えました。(記録を省略した切り替え: <suppressed>回)")
+    void loadSheddingDegraded(String mode, long latencyMillis, int inFlight, int suppressed);
+
+    /**
+     * 負荷が下がったために変換処理の縮退を解除したときに記録するメッセージ
+     *
+     * @param mode          切り替え後の動作
+     * @param latencyMillis 変換にかかっている平均時間 (ミリ秒)
+     * @param inFlight      実行中の変換の数
+     * @param suppressed    前回の記録以降に記録を省略した切り替えの回数
+     */
+    @LogLevel(Level.INFO)
+    @Key("carbon_japanizer.japanize.load-shedding.recovered")
+    @Value(locale = Locales.EN_US, content = "Conversion load has decreased (average <latency_millis> ms, <in_flight> in flight). Switched to <mode> mode. (<suppressed> changes not logged)")
+    @Value(locale = Locales.JA_JP, content = "変換処理の負荷が下がりました (平均<latency_millis>ミリ秒、実行中<in_flight>件)。<mode>に切り替えました。(記録を省略した切り替え: <suppressed>回)")
+    void loadSheddingRecovered(String mode, long latencyMillis, int inFlight, int suppressed);
+
+    /**
+     * データベースから変換結果の検索に失敗したときに記録するメッセージ
+     *
+     * @param text 検索したテキスト
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.conversion_cache.lookup.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to look up the stored conversion: <text>")
+    @Value(locale = Locales.JA_JP, content = "保存された変換結果の検索に失敗: <text>")
+    ThrowableLogger conversionCacheLookupFailed(String text);
+
+    /**
+     * データベースへ変換結果の書き込みに失敗したときに記録するメッセージ
+     *
+     * @param count 書き込もうとした件数
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.conversion_cache.flush.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to store <count> conversions.")
+    @Value(locale = Locales.JA_JP, content = "<count>件の変換結果の保存に失敗しました。")
+    ThrowableLogger conversionCacheFlushFailed(int count);
+
+    /**
+     * データベースから古い変換結果の削除に失敗したときに記録するメッセージ
+     *
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.conversion_cache.cleanup.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to delete unused stored conversions.")
+    @Value(locale = Locales.JA_JP, content = "使用されていない変換結果の削除に失敗しました。")
+    ThrowableLogger conversionCacheCleanupFailed();
+
+    /**
+     * 保存されたよく変換される語句を読み込んだときに記録するメッセージ
+     *
+     * @param count 読み込んだ件数
+     */
+    @LogLevel(Level.INFO)
+    @Key("carbon_japanizer.hot_phrases.loaded")
+    @Value(locale = Locales.EN_US, content = "Prewarmed the conversion cache with <count> hot phrases.")
+    @Value(locale = Locales.JA_JP, content = "よく変換される語句を<count>件キャッシュに読み込みました。")
+    void hotPhrasesLoaded(int count);
+
+    /**
+     * よく変換される語句の読み込みに失敗したときに記録するメッセージ
+     *
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.hot_phrases.load.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to load hot phrases.")
+    @Value(locale = Locales.JA_JP, content = "よく変換される語句の読み込みに失敗しました。")
+    ThrowableLogger hotPhrasesLoadFailed();
+
+    /**
+     * よく変換される語句の保存に失敗したときに記録するメッセージ
+     *
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.hot_phrases.save.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to save hot phrases.")
+    @Value(locale = Locales.JA_JP, content = "よく変換される語句の保存に失敗しました。")
+    ThrowableLogger hotPhrasesSaveFailed();
+
+    /**
+     * よく変換される語句を読み書きするスレッドで未処理の例外が発生したときに記録するメッセージ
+     *
+     * @param threadName 例外が発生したスレッドの名称
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.hot_phrases.thread.uncaught")
+    @Value(locale = Locales.EN_US, content = "Uncaught exception on thread <thread_name>.")
+    @Value(locale = Locales.JA_JP, content = "スレッド「<thread_name>」で例外が発生しました。")
+    ThrowableLogger hotPhrasesThreadUncaught(String threadName);
+
+    /**
+     * 書き込み待ちのユーザーデータの保存に失敗したときに記録するメッセージ
+     *
+     * @param count 保存しようとした件数
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.ERROR)
+    @Key("carbon_japanizer.user.flush.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to save <count> users. They will be retried in the next batch.")
+    @Value(locale = Locales.JA_JP, content = "<count>件のユーザーデータの保存に失敗しました。次回の書き込みで再試行します。")
+    ThrowableLogger userFlushFailed(int count);
+
+    /**
+     * ログイン時にユーザーデータの読み込みが上限時間内に完了しなかったときに記録するメッセージ
+     *
+     * @param userId        ユーザーID
+     * @param timeoutMillis 読み込みを待った時間 (ミリ秒)
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.user.load.timed_out")
+    @Value(locale = Locales.EN_US, content = "User data for <user_id> was not loaded within <timeout_millis> ms of login. The default setting is used until it is loaded.")
+    @Value(locale = Locales.JA_JP, content = "ログインから<timeout_millis>ミリ秒以内に<user_id>のユーザーデータを読み込めませんでした。読み込みが完了するまで標準設定値を使用します。")
+    void userLoadTimedOut(UUID userId, long timeoutMillis);
+
+    /**
+     * データベースの処理が混雑しているため、ログイン時にユーザーデータを読み込めなかったときに記録するメッセージ
+     *
+     * @param userId ユーザーID
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.user.load.rejected")
+    @Value(locale = Locales.EN_US, content = "User data for <user_id> was not loaded at login because the database is busy. It will be loaded when needed.")
+    @Value(locale = Locales.JA_JP, content = "データベースが混雑しているため、ログイン時に<user_id>のユーザーデータを読み込めませんでした。必要になった時点で読み込みます。")
+    void userLoadRejected(UUID userId);
+
+    /**
+     * ユーザーデータの読み込みに失敗したときに記録するメッセージ
      *
-     * @param userName ユーザー名
-     * @param userId   ユーザーID
+     * @param userId ユーザーID
      * @return 例外を記録するロガー
      */
     @LogLevel(Level.ERROR)
-    @Key("carbon_japanizer.user.save.failed")
-    @Value(locale = Locales.EN_US, content = "Failed to save user data: <user_name> (<user_id>)")
-    @Value(locale = Locales.JA_JP, content = "ユーザーデータの保存に失敗: <user_name> (<user_id>)")
-    ThrowableLogger userSaveFailed(Component userName, UUID userId);
+    @Key("carbon_japanizer.user.load.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to load user data: <user_id>")
+    @Value(locale = Locales.JA_JP, content = "ユーザーデータの読み込みに失敗: <user_id>")
+    ThrowableLogger userLoadFailed(UUID userId);
+
+    /**
+     * オンラインのプレイヤーのユーザーデータをまとめて読み込んだときに記録するメッセージ
+     *
+     * @param count 読み込んだユーザーの数
+     * @param elapsedMillis 読み込みにかかった時間 (ミリ秒)
+     */
+    @LogLevel(Level.INFO)
+    @Key("carbon_japanizer.user.bulk_load.completed")
+    @Value(locale = Locales.EN_US, content = "Loaded user data of <count> online players in <elapsed_millis>ms.")
+    @Value(locale = Locales.JA_JP, content = "オンラインのプレイヤー<count>人のユーザーデータを<elapsed_millis>msで読み込みました。")
+    void userBulkLoadCompleted(int count, long elapsedMillis);
+
+    /**
+     * オンラインのプレイヤーのユーザーデータをまとめて読み込めなかったときに記録するメッセージ
+     *
+     * @param count 読み込もうとしたユーザーの数
+     * @return 例外を記録するロガー
+     */
+    @LogLevel(Level.WARN)
+    @Key("carbon_japanizer.user.bulk_load.failed")
+    @Value(locale = Locales.EN_US, content = "Failed to load user data of <count> online players. They will be loaded individually when needed.")
+    @Value(locale = Locales.JA_JP, content = "オンラインのプレイヤー<count>人のユーザーデータの読み込みに失敗しました。必要になった時点で個別に読み込みます。")
+    ThrowableLogger userBulkLoadFailed(int count);
 }
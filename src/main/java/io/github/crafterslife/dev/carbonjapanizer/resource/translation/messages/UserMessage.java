@@ -116,4 +116,159 @@ public interface UserMessage {
     @Value(locale = Locales.EN_US, content = "<info>You have changed the kana-kanji conversion status for chat to “<japanize_status>”.")
     @Value(locale = Locales.JA_JP, content = "<info>チャットのかな漢字変換機能を「<japanize_status>」に変更しました。")
     Message changeJapanizeStatus(Status japanizeStatus);
+
+    /**
+     * 管理者が漢字変換キャッシュの統計を取得した際に送信するメッセージ
+     *
+     * @param entries        キャッシュされている件数
+     * @param hitCount       ヒット数
+     * @param missCount      ミス数
+     * @param hitRate        ヒット率
+     * @param evictionCount  追い出された件数
+     * @param storedHitCount データベースから読み込まれた回数
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.kanji_cache")
+    @Value(locale = Locales.EN_US, content = "<info>Kanji conversion cache: <entries> entries | <hit_count> hits / <miss_count> misses (hit rate <hit_rate>) | <eviction_count> evictions | <stored_hit_count> loaded from database")
+    @Value(locale = Locales.JA_JP, content = "<info>漢字変換キャッシュ: <entries>件 | ヒット <hit_count>回 / ミス <miss_count>回 (ヒット率 <hit_rate>) | 追い出し <eviction_count>件 | データベースから読み込み <stored_hit_count>回")
+    Message kanjiCacheStats(long entries, long hitCount, long missCount, String hitRate, long evictionCount, long storedHitCount);
+
+    /**
+     * 管理者が漢字変換の統計を取得した際に送信するメッセージ
+     *
+     * @param conversions    分割した断片ごとに数えた変換の要求回数
+     * @param deadlineMisses 期限に間に合わずひらがなのまま送信された回数
+     * @param savedRequests  実行中の変換と結果を共有し、送信せずに済んだリクエストの回数
+     * @param composed       既知の文節だけで変換した断片の数
+     * @param composedRate   既知の文節だけで変換した断片の割合
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.conversion")
+    @Value(locale = Locales.EN_US, content = "<info>Kanji conversion: <conversions> chunk requests | <deadline_misses> sent as hiragana after missing the deadline | <saved_requests> requests saved by sharing in-flight results | <composed> chunks served from known phrases (<composed_rate>)")
+    @Value(locale = Locales.JA_JP, content = "<info>漢字変換: 断片ごとの要求 <conversions>回 | 期限超過によりひらがなで送信 <deadline_misses>回 | 実行中の変換の共有により省略 <saved_requests>回 | 既知の文節から変換した断片 <composed>個 (<composed_rate>)")
+    Message conversionStats(long conversions, long deadlineMisses, long savedRequests, long composed, String composedRate);
+
+    /**
+     * 管理者が同時リクエスト数の制限の状態を取得した際に送信するメッセージ
+     *
+     * @param limit         現在の同時リクエスト数の上限
+     * @param inFlight      送信中のリクエストの数
+     * @param queueDepth    空きを待っているリクエストの数
+     * @param rejectedCount 上限を超えたため送信されなかったリクエストの回数
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.concurrency")
+    @Value(locale = Locales.EN_US, content = "<info>Kanji request concurrency: limit <limit> | <in_flight> in flight | <queue_depth> queued | <rejected_count> sent as hiragana over the limit")
+    @Value(locale = Locales.JA_JP, content = "<info>漢字変換の同時リクエスト: 上限 <limit> | 送信中 <in_flight> | 待機中 <queue_depth> | 上限超過によりひらがなで送信 <rejected_count>回")
+    Message concurrencyStats(int limit, int inFlight, int queueDepth, long rejectedCount);
+
+    /**
+     * 管理者がデータベースの同時実行数の制限の状態を取得した際に送信するメッセージ
+     *
+     * @param limit         同時に実行する処理の数の上限
+     * @param inFlight      実行中の処理の数
+     * @param queueDepth    空きを待っている処理の数
+     * @param queueSize     待ち行列の長さの上限
+     * @param averageWait   実行を開始するまでに待った時間の平均 (ミリ秒)
+     * @param maxWait       実行を開始するまでに待った時間の最大値 (ミリ秒)
+     * @param executedCount 実行した処理の回数
+     * @param rejectedCount 待ち行列が埋まっていたため実行しなかった処理の回数
+     * @param timedOutCount 待ち時間の上限を超えたため実行しなかった処理の回数
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.database")
+    @Value(locale = Locales.EN_US, content = "<info>Database concurrency: limit <limit> | <in_flight> running | <queue_depth> / <queue_size> queued | average wait <average_wait> ms (max <max_wait> ms) | <executed_count> executed | <rejected_count> rejected with a full queue | <timed_out_count> timed out in the queue")
+    @Value(locale = Locales.JA_JP, content = "<info>データベースの同時実行: 上限 <limit> | 実行中 <in_flight> | 待機中 <queue_depth> / <queue_size> | 平均待ち時間 <average_wait>ms (最大 <max_wait>ms) | 実行 <executed_count>回 | 待ち行列の超過により拒否 <rejected_count>回 | 待ち時間の超過により中止 <timed_out_count>回")
+    Message databaseStats(
+            int limit,
+            int inFlight,
+            int queueDepth,
+            int queueSize,
+            String averageWait,
+            long maxWait,
+            long executedCount,
+            long rejectedCount,
+            long timedOutCount
+    );
+
+    /**
+     * 管理者が追加リクエストの統計を取得した際に送信するメッセージ
+     *
+     * @param hedgeDelayMillis 追加リクエストを送信するまでの待ち時間 (ミリ秒)。記録が足りない場合は-1
+     * @param hedgedCount      追加リクエストを送信した回数
+     * @param hedgeWinCount    追加リクエストの方が先に結果を返した回数
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.hedging")
+    @Value(locale = Locales.EN_US, content = "<info>Hedged kanji requests: sent after <hedge_delay_millis> ms | <hedged_count> hedges | <hedge_win_count> answered first")
+    @Value(locale = Locales.JA_JP, content = "<info>漢字変換の追加リクエスト: <hedge_delay_millis>ミリ秒後に送信 | 送信 <hedged_count>回 | 先に応答 <hedge_win_count>回")
+    Message hedgingStats(long hedgeDelayMillis, long hedgedCount, long hedgeWinCount);
+
+    /**
+     * 管理者が追加リクエストの統計を取得したが、追加リクエストが無効な場合に送信するメッセージ
+     *
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.hedging.disabled")
+    @Value(locale = Locales.EN_US, content = "<info>Hedged kanji requests are disabled.")
+    @Value(locale = Locales.JA_JP, content = "<info>漢字変換の追加リクエストは無効です。")
+    Message hedgingDisabled();
+
+    /**
+     * 管理者がサーキットブレーカーの状態を取得した際に送信するメッセージ
+     *
+     * @param state               現在の状態
+     * @param consecutiveFailures 連続して失敗した回数
+     * @param retryInMillis       再試行するまでの残り時間 (ミリ秒)
+     * @param openCount           遮断した回数
+     * @param rejectedCount       遮断によって送信されなかったリクエストの回数
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.circuit_breaker")
+    @Value(locale = Locales.EN_US, content = "<info>Kanji circuit breaker: <state> | <consecutive_failures> consecutive failures | retry in <retry_in_millis> ms | opened <open_count> times | <rejected_count> requests skipped")
+    @Value(locale = Locales.JA_JP, content = "<info>漢字変換のサーキットブレーカー: <state> | 連続失敗 <consecutive_failures>回 | 再試行まで <retry_in_millis>ミリ秒 | 遮断 <open_count>回 | 送信省略 <rejected_count>回")
+    Message circuitBreakerStats(String state, int consecutiveFailures, long retryInMillis, long openCount, long rejectedCount);
+
+    /**
+     * 管理者が負荷に応じた縮退の状態を取得した際に送信するメッセージ
+     *
+     * @param mode                 現在の動作
+     * @param averageLatencyMillis 平均変換時間 (ミリ秒)
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.load_shedding")
+    @Value(locale = Locales.EN_US, content = "<info>Kanji load shedding: <mode> | average conversion time <average_latency_millis> ms")
+    @Value(locale = Locales.JA_JP, content = "<info>漢字変換の縮退: <mode> | 平均変換時間 <average_latency_millis>ミリ秒")
+    Message loadSheddingStats(String mode, long averageLatencyMillis);
+
+    /**
+     * 管理者がユーザーデータのキャッシュの統計を取得した際に送信するメッセージ
+     *
+     * @param entries        キャッシュされている件数
+     * @param maximumSize    キャッシュする件数の上限
+     * @param onlineUsers    ログイン中のユーザーの数
+     * @param storedHits     ストレージに存在するユーザーのヒット数
+     * @param storedHitRate  ストレージに存在するユーザーのヒット率
+     * @param missingHits    ストレージに存在しないユーザーのヒット数
+     * @param missingHitRate ストレージに存在しないユーザーのヒット率
+     * @param missCount      ミス数
+     * @param evictionCount  追い出された件数
+     * @param fallbacks      キャッシュに存在せず、既定値で変換の有無を判断した回数
+     * @return メッセージ
+     */
+    @Key("carbon_japanizer.command.stats.user_cache")
+    @Value(locale = Locales.EN_US, content = "<info>User cache: <entries> / <maximum_size> entries for <online_users> online | <stored_hits> stored user hits (<stored_hit_rate>) | <missing_hits> new user hits (<missing_hit_rate>) | <miss_count> misses | <eviction_count> evictions | <fallbacks> chat messages used the default setting before the user was loaded")
+    @Value(locale = Locales.JA_JP, content = "<info>ユーザーキャッシュ: <entries>件 / 上限 <maximum_size>件 (オンライン <online_users>人) | 保存済みユーザーのヒット <stored_hits>回 (<stored_hit_rate>) | 未保存ユーザーのヒット <missing_hits>回 (<missing_hit_rate>) | ミス <miss_count>回 | 追い出し <eviction_count>件 | 読み込み前のため既定の設定で処理したチャット <fallbacks>回")
+    Message userCacheStats(
+            long entries,
+            long maximumSize,
+            int onlineUsers,
+            long storedHits,
+            String storedHitRate,
+            long missingHits,
+            String missingHitRate,
+            long missCount,
+            long evictionCount,
+            long fallbacks
+    );
 }
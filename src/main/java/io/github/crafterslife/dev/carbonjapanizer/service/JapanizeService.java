@@ -21,7 +21,6 @@ package io.github.crafterslife.dev.carbonjapanizer.service;
 
 import io.github.crafterslife.dev.carbonjapanizer.conversion.renderer.JapanizedComponentFormatter;
 import io.github.crafterslife.dev.carbonjapanizer.conversion.renderer.RomanComponentJapanizer;
-import io.github.crafterslife.dev.carbonjapanizer.database.entity.CarbonJapanizerUser;
 import java.util.UUID;
 import net.kyori.adventure.text.Component;
 import org.jspecify.annotations.NullMarked;
@@ -44,11 +43,11 @@ public final class JapanizeService {
     }
 
     public Component japanize(final UUID uuid, final Component input) throws IllegalStateException {
-        final CarbonJapanizerUser user = this.userService.loadUser(uuid).join();
         // if (user.hasPermission()) TODO
 
         // ユーザーが変換機能を有効にしていなければそのまま返す
-        if (!user.shouldJapanize()) {
+        // チャットの配信を止めないよう、ユーザーデータの読み込みは待たない
+        if (!this.userService.shouldJapanize(uuid)) {
             return input;
         }
 
@@ -21,49 +21,111 @@ package io.github.crafterslife.dev.carbonjapanizer.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.crafterslife.dev.carbonjapanizer.database.DatabaseConcurrencyLimiter;
 import io.github.crafterslife.dev.carbonjapanizer.database.entity.CarbonJapanizerUser;
 import io.github.crafterslife.dev.carbonjapanizer.database.repository.UserRepository;
 import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
 import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import org.jdbi.v3.core.Jdbi;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 /**
  * {@link CarbonJapanizerUser} のインスタンスを提供、または保存するサービスクラス。
+ *
+ * <p>チャットの処理中にI/O処理でブロックしないよう、ユーザーデータはログイン時に読み込んでキャッシュに保持する。
+ * チャットの処理からは {@link #shouldJapanize(UUID)} によってキャッシュのみを参照する。</p>
+ *
+ * <p>ストレージに存在しないユーザーも、既定値のユーザーデータとしてキャッシュする。
+ * 他のサーバーが同じストレージに保存した場合に備え、この否定的なキャッシュは通常より短い時間で破棄する。</p>
+ *
+ * <p>ユーザーデータの保存は即座には実行せず、ユーザーごとにまとめた上で一定間隔で一度のバッチとして書き込む。
+ * 書き込み待ちのユーザーデータは、書き込みが成功するまで読み込みの結果より優先する。</p>
+ *
+ * <p>データベースへの読み書きはすべて {@link DatabaseConcurrencyLimiter} を経由し、
+ * 同時に実行する数をコネクションプールの大きさに制限する。</p>
  */
 @NullMarked
-public final class UserService {
+public final class UserService implements AutoCloseable {
 
     public static final String USER_POOL = "%s UserServicePool-%s Thread #%%d";
 
+    /**
+     * 一回の問い合わせでまとめて読み込むユーザーの数の上限。
+     */
+    public static final int BULK_LOAD_CHUNK_SIZE = 500;
+
     private final PrimaryConfig primaryConfig;
     private final LoggingService logger;
     private final UserRepository userRepository;
 
-    private final Executor executor = Executors.newVirtualThreadPerTaskExecutor();
-    private final Cache<UUID, CarbonJapanizerUser> userCache;
+    private final DatabaseConcurrencyLimiter databaseLimiter;
+    private final ScheduledExecutorService writer;
+    private final Map<UUID, CarbonJapanizerUser> pendingWrites = new ConcurrentHashMap<>();
+    private final PrimaryConfig.UserCacheSettings cacheSettings;
+    private final Cache<UUID, CachedUser> userCache;
+    private final Set<UUID> onlineUsers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, CompletableFuture<CarbonJapanizerUser>> loading = new ConcurrentHashMap<>();
+    private final LongAdder storedHits = new LongAdder();
+    private final LongAdder missingHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
 
     /**
      * このクラスのインスタンスを生成する。
      *
-     * @param primaryConfig メイン設定
-     * @param logger ロギングサービス
-     * @param jdbi   ユーザーデータを操作する {@link Jdbi}
+     * @param primaryConfig   メイン設定
+     * @param logger          ロギングサービス
+     * @param jdbi            ユーザーデータを操作する {@link Jdbi}
+     * @param databaseLimiter データベースへの同時実行数の制限器
      */
-    public UserService(final PrimaryConfig primaryConfig, final LoggingService logger, final Jdbi jdbi) {
+    public UserService(
+            final PrimaryConfig primaryConfig,
+            final LoggingService logger,
+            final Jdbi jdbi,
+            final DatabaseConcurrencyLimiter databaseLimiter
+    ) {
         this.primaryConfig = primaryConfig;
         this.logger = logger;
         this.userRepository = jdbi.onDemand(UserRepository.class);
+        this.databaseLimiter = databaseLimiter;
+        this.cacheSettings = primaryConfig.userCache();
         this.userCache = Caffeine.newBuilder()
-                .expireAfterAccess(Duration.of(1, ChronoUnit.HOURS))
-                .maximumSize(100)
+                .expireAfter(new CachedUserExpiry(
+                        TimeUnit.MINUTES.toNanos(this.cacheSettings.storedExpireMinutes()),
+                        TimeUnit.MINUTES.toNanos(this.cacheSettings.missingExpireMinutes())
+                ))
+                .maximumSize(this.maximumSize(0))
+                .recordStats()
                 .build();
+        this.writer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("%s %s Thread #%%d".formatted("CarbonJapanizer", "UserWriter"))
+                .setUncaughtExceptionHandler((thread, throwable) -> this.logger.databaseThreadUncaught(thread.getName()).logging(throwable))
+                .build());
+
+        final long flushSeconds = primaryConfig.userSaveFlushSeconds();
+        this.writer.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
     }
 
     /**
@@ -72,52 +134,163 @@ public final class UserService {
      * <p>ユーザーデータの読み込み時にI/O処理が発生するため、実行中はスレッドがブロックされる。
      * 読み込んだユーザーデータはキャッシュに保存されるため、このメソッドの呼び出しはユーザーデータがキャッシュに存在する限り高速になる。</p>
      *
-     * <p>Note: ユーザーデータが存在しない場合、新しいユーザーデータを生成するがストレージへの保存はしない。</p>
+     * <p>同じユーザーの読み込みが実行中の場合は、新たに読み込まずに実行中の {@link CompletableFuture} を返す。</p>
+     *
+     * <p>Note: ユーザーデータが存在しない場合、新しいユーザーデータを生成するがストレージへの保存はしない。
+     * 生成したユーザーデータは、存在しないことを示すエントリとしてキャッシュする。</p>
      *
      * @param userUUID 取得対象のユーザーUUID
      * @return 読み込んだユーザーデータ
      */
     public CompletableFuture<CarbonJapanizerUser> loadUser(final UUID userUUID) {
         // First, attempt to retrieve synchronously from the cache.
-        final var cachedUser = this.userCache.getIfPresent(userUUID);
+        final var cachedUser = this.lookup(userUUID);
         if (cachedUser != null) {
             return CompletableFuture.completedFuture(cachedUser);
         }
+        return this.fetch(userUUID);
+    }
 
-        // If not in cache, retrieve asynchronously from DB.
-        return CompletableFuture.supplyAsync(() -> {
-                    this.setThreadName(userUUID);
-                    final var storageUser = this.userRepository.findById(userUUID);
+    /**
+     * ログインしたユーザーのユーザーデータを、設定した上限時間まで待って読み込む。
+     *
+     * <p>返される {@link CompletableFuture} は、読み込みの完了、失敗、上限時間の経過のいずれかで正常に完了する。
+     * 上限時間を過ぎた場合も読み込みは継続し、完了した時点でキャッシュに保存される。</p>
+     *
+     * <p>キャッシュの件数の上限を自動的に調整する場合は、オンラインのプレイヤー数に合わせて上限を変更する。</p>
+     *
+     * @param userUUID 対象ユーザーのUUID
+     * @return 読み込みを待ち終えたときに完了する {@link CompletableFuture}
+     */
+    public CompletableFuture<Void> preloadUser(final UUID userUUID) {
+        if (this.onlineUsers.add(userUUID)) {
+            this.resizeCache();
+        }
 
-                    if (storageUser.isPresent()) {
-                        this.userCache.put(userUUID, storageUser.get());
-                        return storageUser.get();
-                    } else {
-                        return new CarbonJapanizerUser(userUUID, this.primaryConfig.defaultJapanize());
+        final long timeoutMillis = this.primaryConfig.loginLoadTimeoutMillis();
+        return this.loadUser(userUUID)
+                .copy() // 同じユーザーの読み込みを待つ他の呼び出しまで、タイムアウトで完了させない
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((user, exception) -> {
+                    if (exception instanceof TimeoutException) {
+                        this.logger.userLoadTimedOut(userUUID, timeoutMillis);
+                    } else if (exception instanceof CompletionException completion
+                            && completion.getCause() instanceof RejectedExecutionException) {
+                        this.logger.userLoadRejected(userUUID);
+                    } else if (exception != null) {
+                        this.logger.userLoadFailed(userUUID).logging(exception);
                     }
-                },
-                this.executor);
+                    return null;
+                });
     }
 
     /**
-     * ユーザーデータを保存する。
+     * 複数のユーザーデータを、{@link #BULK_LOAD_CHUNK_SIZE} 件ずつの問い合わせでまとめて読み込む。
      *
-     * @param user 保存対象のユーザーデータ
-     * @return {@link CompletableFuture}
-     */
-    public CompletableFuture<Void> saveUser(final CarbonJapanizerUser user) {
-        this.userCache.put(user.uuid(), user);
-        return CompletableFuture
-                .runAsync(() -> {
-                    this.setThreadName(user.uuid());
-                    this.userRepository.save(user);
-                }, this.executor)
-                .exceptionally(exception -> {
-                    this.logger.userSaveFailed(user.displayName(), user.uuid()).logging(exception);
+     * <p>すでにキャッシュに存在するユーザーは読み込まない。
+     * 読み込んだユーザーデータは {@link #loadUser(UUID)} と同じくキャッシュに保存し、
+     * ストレージに存在しないユーザーは存在しないことを示すエントリとしてキャッシュする。</p>
+     *
+     * @param userUUIDs 取得対象のユーザーUUID
+     * @return すべての読み込みが完了したときに完了する {@link CompletableFuture}
+     */
+    public CompletableFuture<Void> loadUsers(final Collection<UUID> userUUIDs) {
+        final Map<UUID, CachedUser> cached = this.userCache.asMap();
+        final List<UUID> targets = userUUIDs.stream()
+                .distinct()
+                .filter(uuid -> !cached.containsKey(uuid))
+                .toList();
+
+        final List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < targets.size(); from += BULK_LOAD_CHUNK_SIZE) {
+            final List<UUID> chunk = targets.subList(from, Math.min(from + BULK_LOAD_CHUNK_SIZE, targets.size()));
+            batches.add(this.databaseLimiter.submit(() -> this.loadChunk(chunk)));
+        }
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * すでにオンラインのプレイヤーのユーザーデータをまとめて読み込む。
+     *
+     * <p>プラグインの有効化時など、ログインイベントを経ずにオンラインになっているプレイヤーに使用する。
+     * 返される {@link CompletableFuture} は、読み込みに失敗した場合も正常に完了する。
+     * 読み込めなかったユーザーは、必要になった時点で個別に読み込まれる。</p>
+     *
+     * @param userUUIDs オンラインのプレイヤーのUUID
+     * @return 読み込みを終えたときに完了する {@link CompletableFuture}
+     */
+    public CompletableFuture<Void> preloadUsers(final Collection<UUID> userUUIDs) {
+        if (this.onlineUsers.addAll(userUUIDs)) {
+            this.resizeCache();
+        }
+
+        final long startedAt = System.nanoTime();
+        return this.loadUsers(userUUIDs)
+                .handle((ignored, exception) -> {
+                    if (exception != null) {
+                        this.logger.userBulkLoadFailed(userUUIDs.size()).logging(exception);
+                    } else {
+                        this.logger.userBulkLoadCompleted(userUUIDs.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                    }
                     return null;
                 });
     }
 
+    /**
+     * ユーザーがかな漢字変換を有効にしているかを、ブロックせずに取得する。
+     *
+     * <p>キャッシュに存在しない場合は設定の既定値を返し、ユーザーデータの読み込みをバックグラウンドで開始する。
+     * ただし、データベースの処理が混雑している場合は読み込みを開始しない。</p>
+     *
+     * @param userUUID 取得対象のユーザーUUID
+     * @return かな漢字変換を有効にしている場合は {@code true}
+     */
+    public boolean shouldJapanize(final UUID userUUID) {
+        final var cachedUser = this.lookup(userUUID);
+        if (cachedUser != null) {
+            return cachedUser.shouldJapanize();
+        }
+
+        this.fallbacks.increment();
+        if (!this.databaseLimiter.saturated()) {
+            this.fetch(userUUID);
+        }
+        return this.primaryConfig.defaultJapanize();
+    }
+
+    /**
+     * ユーザーデータの書き込みを予約する。
+     *
+     * <p>キャッシュのエントリは、存在しないことを示すエントリであっても保存したユーザーデータで置き換える。
+     * 実際の書き込みは次回のバッチで行われる。同じユーザーへの書き込みは最後の一件にまとめられる。</p>
+     *
+     * @param user 保存対象のユーザーデータ
+     */
+    public void saveUser(final CarbonJapanizerUser user) {
+        this.pendingWrites.put(user.uuid(), user);
+        this.userCache.put(user.uuid(), new CachedUser(user, true));
+    }
+
+    /**
+     * 書き込み待ちの件数。
+     *
+     * @return 書き込み待ちの件数
+     */
+    public int pendingWrites() {
+        return this.pendingWrites.size();
+    }
+
+    /**
+     * ログアウトしたユーザーをオンラインのプレイヤー数から除く。
+     *
+     * @param userUUID 対象ユーザーのUUID
+     */
+    public void markOffline(final UUID userUUID) {
+        if (this.onlineUsers.remove(userUUID)) {
+            this.resizeCache();
+        }
+    }
+
     /**
      * キャッシュからユーザーデータを破棄する。
      *
@@ -127,7 +300,267 @@ public final class UserService {
         this.userCache.invalidate(targetUUID);
     }
 
+    /**
+     * キャッシュされているユーザーデータの件数。
+     *
+     * @return キャッシュされている件数の概算
+     */
+    public long cachedUserCount() {
+        return this.userCache.estimatedSize();
+    }
+
+    /**
+     * キャッシュする件数の現在の上限。
+     *
+     * @return キャッシュする件数の上限
+     */
+    public long maximumCacheSize() {
+        return this.userCache.policy().eviction()
+                .map(eviction -> eviction.getMaximum())
+                .orElse(-1L);
+    }
+
+    /**
+     * ログイン中のユーザーの数。
+     *
+     * @return ログイン中のユーザーの数
+     */
+    public int onlineUserCount() {
+        return this.onlineUsers.size();
+    }
+
+    /**
+     * ユーザーデータのキャッシュの統計。
+     *
+     * @return キャッシュの統計
+     */
+    public CacheStats cacheStats() {
+        return this.userCache.stats();
+    }
+
+    /**
+     * ストレージに存在するユーザーデータがキャッシュから見つかった回数。
+     *
+     * @return 存在するユーザーのヒット数
+     */
+    public long storedHitCount() {
+        return this.storedHits.sum();
+    }
+
+    /**
+     * ストレージに存在しないことがキャッシュから分かった回数。
+     *
+     * @return 存在しないユーザーのヒット数
+     */
+    public long missingHitCount() {
+        return this.missingHits.sum();
+    }
+
+    /**
+     * キャッシュにエントリが存在しなかった回数。
+     *
+     * @return ミス数
+     */
+    public long missCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * ユーザーデータがキャッシュに存在せず、設定の既定値で変換の有無を判断した回数。
+     *
+     * @return 既定値を使用した回数
+     */
+    public long fallbackCount() {
+        return this.fallbacks.sum();
+    }
+
+    /**
+     * データベースへの同時実行数の制限器。
+     *
+     * @return データベースへの同時実行数の制限器
+     */
+    public DatabaseConcurrencyLimiter databaseLimiter() {
+        return this.databaseLimiter;
+    }
+
+    /**
+     * キャッシュからユーザーデータを取得し、ヒットの種類ごとに回数を数える。
+     *
+     * @param userUUID 取得対象のユーザーUUID
+     * @return キャッシュされているユーザーデータ。存在しない場合は {@code null}
+     */
+    private @Nullable CarbonJapanizerUser lookup(final UUID userUUID) {
+        final CachedUser cached = this.userCache.getIfPresent(userUUID);
+        if (cached == null) {
+            this.misses.increment();
+            return null;
+        }
+
+        if (cached.stored()) {
+            this.storedHits.increment();
+        } else {
+            this.missingHits.increment();
+        }
+        return cached.user();
+    }
+
+    /**
+     * ストレージからユーザーデータを非同期に読み込み、キャッシュに保存する。
+     *
+     * @param userUUID 取得対象のユーザーUUID
+     * @return 読み込んだユーザーデータ
+     */
+    private CompletableFuture<CarbonJapanizerUser> fetch(final UUID userUUID) {
+        final CompletableFuture<CarbonJapanizerUser> created = new CompletableFuture<>();
+        final CompletableFuture<CarbonJapanizerUser> running = this.loading.putIfAbsent(userUUID, created);
+        if (running != null) {
+            return running;
+        }
+
+        // If not in cache, retrieve asynchronously from DB.
+        this.databaseLimiter.submit(() -> {
+            this.setThreadName(userUUID);
+            final CarbonJapanizerUser pending = this.pendingWrites.get(userUUID);
+            final CachedUser loaded = pending != null ? new CachedUser(pending, true) : this.findStored(userUUID);
+
+            // 読み込み中に saveUser で保存された内容を、読み込む前の内容で上書きしない
+            final CachedUser current = this.userCache.asMap().putIfAbsent(userUUID, loaded);
+            return current == null ? loaded.user() : current.user();
+        }).whenComplete((user, exception) -> {
+            if (exception != null) {
+                created.completeExceptionally(exception);
+            } else {
+                created.complete(user);
+            }
+            this.loading.remove(userUUID, created);
+        });
+        return created;
+    }
+
+    private CachedUser findStored(final UUID userUUID) {
+        return this.userRepository.findById(userUUID)
+                .map(user -> new CachedUser(user, true))
+                .orElseGet(() -> new CachedUser(new CarbonJapanizerUser(userUUID, this.primaryConfig.defaultJapanize()), false));
+    }
+
+    /**
+     * 一回の問い合わせで読み込み、結果をキャッシュに保存する。
+     *
+     * @param userUUIDs 取得対象のユーザーUUID
+     * @return 常に {@code null}
+     */
+    private @Nullable Void loadChunk(final List<UUID> userUUIDs) {
+        final Map<UUID, CarbonJapanizerUser> found = new HashMap<>();
+        this.userRepository.findAllById(userUUIDs).forEach(user -> found.put(user.uuid(), user));
+
+        for (final UUID userUUID : userUUIDs) {
+            final CarbonJapanizerUser pending = this.pendingWrites.get(userUUID);
+            final CarbonJapanizerUser stored = pending != null ? pending : found.get(userUUID);
+            final CachedUser loaded = stored != null
+                    ? new CachedUser(stored, true)
+                    : new CachedUser(new CarbonJapanizerUser(userUUID, this.primaryConfig.defaultJapanize()), false);
+
+            // 読み込み中に saveUser で保存された内容を、読み込む前の内容で上書きしない
+            this.userCache.asMap().putIfAbsent(userUUID, loaded);
+        }
+        return null;
+    }
+
+    private void flush() {
+        if (this.pendingWrites.isEmpty()) {
+            return;
+        }
+
+        // 複数のサーバーが同時に書き込んでもロックの取得順序が揃うよう、UUIDの順に並べる
+        final List<CarbonJapanizerUser> users = new ArrayList<>(this.pendingWrites.values());
+        users.sort(Comparator.comparing(CarbonJapanizerUser::uuid));
+        try {
+            this.databaseLimiter.submit(() -> {
+                this.userRepository.saveAll(users);
+                return users;
+            }).join();
+        } catch (final CompletionException exception) {
+            // 待ち行列が埋まっていた場合も含め、書き込めなかった変更は次回のバッチで再試行する
+            this.logger.userFlushFailed(users.size()).logging(exception);
+            return;
+        }
+
+        // 書き込み中に予約された新しい変更は、次回のバッチまで残す
+        users.forEach(user -> this.pendingWrites.remove(user.uuid(), user));
+    }
+
+    private void resizeCache() {
+        final long maximumSize = this.maximumSize(this.onlineUsers.size());
+        this.userCache.policy().eviction().ifPresent(eviction -> {
+            if (eviction.getMaximum() != maximumSize) {
+                eviction.setMaximum(maximumSize);
+            }
+        });
+    }
+
+    /**
+     * キャッシュする件数の上限を求める。
+     *
+     * @param onlineUsers オンラインのプレイヤー数
+     * @return 設定で固定されている場合はその値、そうでない場合はオンラインのプレイヤー数に応じた値
+     */
+    private long maximumSize(final int onlineUsers) {
+        if (this.cacheSettings.maximumSize() > 0) {
+            return this.cacheSettings.maximumSize();
+        }
+
+        final long scaled = (long) Math.ceil(onlineUsers * this.cacheSettings.entriesPerOnlinePlayer());
+        return Math.max(this.cacheSettings.minimumSize(), scaled);
+    }
+
     private void setThreadName(final UUID uuid) {
         Thread.currentThread().setName(USER_POOL.formatted("CarbonJapanizer", uuid));
     }
+
+    /**
+     * 定期的な書き込みを停止し、書き込み待ちのユーザーデータをすべて書き込む。
+     */
+    @Override
+    public void close() {
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+    }
+
+    /**
+     * キャッシュするユーザーデータ。
+     *
+     * @param user   ユーザーデータ
+     * @param stored ストレージに存在するかどうか
+     */
+    private record CachedUser(CarbonJapanizerUser user, boolean stored) {
+    }
+
+    /**
+     * 存在するユーザーは最後の参照から、存在しないユーザーは作成から一定時間でキャッシュから破棄する。
+     *
+     * @param storedExpireNanos  存在するユーザーを保持する時間 (ナノ秒)
+     * @param missingExpireNanos 存在しないユーザーを保持する時間 (ナノ秒)
+     */
+    private record CachedUserExpiry(long storedExpireNanos, long missingExpireNanos) implements Expiry<UUID, CachedUser> {
+
+        @Override
+        public long expireAfterCreate(final UUID key, final CachedUser value, final long currentTime) {
+            return value.stored() ? this.storedExpireNanos : this.missingExpireNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(final UUID key, final CachedUser value, final long currentTime, final long currentDuration) {
+            return value.stored() ? this.storedExpireNanos : this.missingExpireNanos;
+        }
+
+        @Override
+        public long expireAfterRead(final UUID key, final CachedUser value, final long currentTime, final long currentDuration) {
+            return value.stored() ? this.storedExpireNanos : currentDuration;
+        }
+    }
 }
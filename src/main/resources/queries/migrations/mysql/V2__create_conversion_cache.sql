@@ -0,0 +1,6 @@
+CREATE TABLE carbon_japanizer_conversions (
+    `hash` BINARY(32) NOT NULL PRIMARY KEY,
+    `kanji` VARCHAR(1024) NOT NULL,
+    `last_used` TIMESTAMP NOT NULL,
+    INDEX carbon_japanizer_conversions_last_used (`last_used`)
+);
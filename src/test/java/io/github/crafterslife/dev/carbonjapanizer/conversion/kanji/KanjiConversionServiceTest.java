@@ -0,0 +1,208 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import io.github.crafterslife.dev.carbonjapanizer.resource.configuration.configurations.PrimaryConfig;
+import io.github.crafterslife.dev.carbonjapanizer.resource.translation.messages.LoggingService;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 代替サーバーに接続し、漢字変換の経路を {@link KanjiConversionService} から動作させるテスト。
+ */
+@NullMarked
+final class KanjiConversionServiceTest {
+
+    private static final long CONNECT_TIMEOUT_MILLIS = 200;
+    private static final long REQUEST_TIMEOUT_MILLIS = 300;
+    private static final long DEADLINE_MILLIS = 100;
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long WAIT_MILLIS = 5000;
+
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private StandInTransliterationServer server;
+    private KanaKanjiConverter converter;
+    private KanjiConversionService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = StandInTransliterationServer.start();
+        final PrimaryConfig.KanjiConversionSettings settings = settings(this.server.url());
+        final LoggingService logger = LoggingService.create(ComponentLogger.logger("CarbonJapanizer"));
+        this.converter = new GoogleKanaKanjiConverter(settings.google());
+        this.service = new KanjiConversionService(
+                settings,
+                logger,
+                this.converter,
+                new KanjiConversionCache(settings, null),
+                new PhraseCache(settings),
+                new AdaptiveConcurrencyLimiter(settings.concurrencyLimit()),
+                new CircuitBreaker(settings, logger),
+                new LoadShedder(settings, logger)
+        );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.callers.shutdownNow();
+        this.service.close();
+        this.converter.close();
+        this.server.close();
+    }
+
+    @Test
+    void convertsThroughBackendAndCachesResult() {
+        this.server.respond("にほんご", "日本語");
+
+        assertEquals("日本語", this.convert("にほんご"));
+        assertEquals("日本語", this.convert("にほんご"));
+        assertEquals(1, this.server.requestCount());
+        assertEquals(0, this.service.concurrencyLimiter().inFlight());
+    }
+
+    @Test
+    void coalescesConcurrentConversions() {
+        this.server.respond("へんかん", "変換");
+        this.server.hold();
+
+        final CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> this.convert("へんかん"), this.callers);
+        waitUntil(() -> this.server.requestCount() == 1);
+        final CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> this.convert("へんかん"), this.callers);
+        waitUntil(() -> this.service.coalescedCount() == 1);
+
+        this.server.release();
+        assertEquals("変換", first.join());
+        assertEquals("変換", second.join());
+        assertEquals(1, this.server.requestCount());
+    }
+
+    @Test
+    void fallsBackToHiraganaWhenDeadlineIsMissed() {
+        this.server.respond("おそい", "遅い");
+        this.server.latency(DEADLINE_MILLIS * 5);
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEADLINE_MILLIS);
+        assertEquals("おそい", this.service.convertWithin("おそい", deadline));
+        assertEquals(1, this.service.deadlineMissCount());
+
+        // 期限に間に合わなかった変換も継続し、遅れて届いた結果は以降の変換に使われる
+        assertEquals("遅い", this.convert("おそい"));
+        assertEquals(1, this.server.requestCount());
+        assertEquals(1, this.service.deadlineMissCount());
+    }
+
+    @Test
+    void releasesLimiterWhenBackendHangs() {
+        this.server.hold();
+
+        final String result = assertTimeoutPreemptively(
+                Duration.ofMillis((CONNECT_TIMEOUT_MILLIS + REQUEST_TIMEOUT_MILLIS + DEADLINE_MILLIS) * 3),
+                () -> this.convert("とまる")
+        );
+        assertEquals("とまる", result);
+        assertEquals(0, this.service.concurrencyLimiter().inFlight());
+        assertEquals(1, this.service.circuitBreaker().consecutiveFailures());
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        this.server.fail(500);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            final String hiragana = "しっぱい" + i;
+            assertEquals(hiragana, this.convert(hiragana));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, this.service.circuitBreaker().state());
+
+        // 遮断中はリクエストを送信せず、ひらがなのまま返す
+        assertEquals("しゃだん", this.convert("しゃだん"));
+        assertEquals(FAILURE_THRESHOLD, this.server.requestCount());
+        assertEquals(0, this.service.concurrencyLimiter().inFlight());
+    }
+
+    /**
+     * バックエンドの応答を待つ上限時間より十分に長い期限で変換する。
+     *
+     * @param hiragana 変換対象の文字列
+     * @return 変換結果
+     */
+    private String convert(final String hiragana) {
+        return this.service.convertWithin(hiragana, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS));
+    }
+
+    /**
+     * 条件を満たすまで待機する。
+     *
+     * @param condition 待機を終える条件
+     */
+    private static void waitUntil(final BooleanSupplier condition) {
+        assertTimeoutPreemptively(Duration.ofMillis(WAIT_MILLIS), () -> {
+            while (!condition.getAsBoolean()) {
+                Thread.sleep(5);
+            }
+        });
+    }
+
+    /**
+     * 標準設定の送信先を代替サーバーに向け、タイムアウトを短くした設定を作成する。
+     *
+     * @param url 代替サーバーのURL
+     * @return かな漢字変換の設定
+     */
+    private static PrimaryConfig.KanjiConversionSettings settings(final String url) {
+        final PrimaryConfig.KanjiConversionSettings defaults = new PrimaryConfig().kanjiConversion();
+        return new PrimaryConfig.KanjiConversionSettings(
+                PrimaryConfig.KanjiBackend.GOOGLE,
+                new PrimaryConfig.GoogleBackendSettings(url, CONNECT_TIMEOUT_MILLIS, REQUEST_TIMEOUT_MILLIS, defaults.google().maxConcurrentRequests()),
+                defaults.localHttp(),
+                defaults.skk(),
+                DEADLINE_MILLIS,
+                defaults.chunkThreshold(),
+                defaults.concurrencyLimit(),
+                defaults.hedging(),
+                defaults.loadShedding(),
+                FAILURE_THRESHOLD,
+                defaults.circuitBreakerOpenMillis(),
+                defaults.circuitBreakerMaxOpenMillis(),
+                defaults.cacheMaximumSize(),
+                defaults.cacheExpireMinutes(),
+                defaults.phraseCacheMaximumSize(),
+                defaults.hotPhrasesSize(),
+                defaults.hotPhrasesSaveMinutes(),
+                false,
+                defaults.persistentCacheFlushSeconds(),
+                defaults.persistentCacheExpireDays()
+        );
+    }
+}
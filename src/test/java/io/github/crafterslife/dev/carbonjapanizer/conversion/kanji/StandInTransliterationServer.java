@@ -0,0 +1,235 @@
+/*
+ * CarbonJapanizer
+ *
+ * Copyright (c) 2025. Namiu (うにたろう)
+ *                     Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Google CGI API for Japanese Input と同じ形式で応答する、テスト用の代替サーバー。
+ *
+ * <p>ループバックアドレスの空いているポートで待ち受ける。{@link GoogleKanaKanjiConverter} の送信先をこのサーバーに向けることで、
+ * google.comへ接続せずに漢字変換の経路を動作させる。</p>
+ *
+ * <p>{@link #respond(String, String)} で登録した文節はその変換結果を、それ以外の文節はひらがなをそのまま候補として返す。
+ * 応答の待機時間、失敗の応答、応答の保留をテストから切り替えられる。</p>
+ */
+@NullMarked
+final class StandInTransliterationServer implements AutoCloseable {
+
+    private static final String PATH = "/transliterate";
+    private static final String TEXT_PARAMETER = "text=";
+    private static final String SEGMENT_SEPARATOR = ",";
+
+    private final Map<String, String> conversions = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+
+    private volatile long latencyMillis;
+    private volatile int failureStatus;
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private StandInTransliterationServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.setExecutor(this.executor);
+        this.server.createContext(PATH, this::handle);
+    }
+
+    /**
+     * 代替サーバーを起動する。
+     *
+     * @return 起動した代替サーバー
+     * @throws IOException 待ち受けに失敗した場合
+     */
+    static StandInTransliterationServer start() throws IOException {
+        final StandInTransliterationServer standIn = new StandInTransliterationServer();
+        standIn.server.start();
+        return standIn;
+    }
+
+    /**
+     * 漢字変換設定の送信先に指定するURL。
+     *
+     * @return 代替サーバーのURL
+     */
+    String url() {
+        return "http://%s:%d%s".formatted(
+                this.server.getAddress().getHostString(),
+                this.server.getAddress().getPort(),
+                PATH
+        );
+    }
+
+    /**
+     * 文節の変換結果を登録する。
+     *
+     * @param hiragana 変換対象の文節
+     * @param kanji    返す変換結果
+     */
+    void respond(final String hiragana, final String kanji) {
+        this.conversions.put(hiragana, kanji);
+    }
+
+    /**
+     * 応答までに待機する時間を設定する。
+     *
+     * @param millis 待機する時間 (ミリ秒)
+     */
+    void latency(final long millis) {
+        this.latencyMillis = millis;
+    }
+
+    /**
+     * 以降のリクエストに指定したステータスコードで応答する。
+     *
+     * @param status 応答するステータスコード。{@code 0} の場合は正常に応答する
+     */
+    void fail(final int status) {
+        this.failureStatus = status;
+    }
+
+    /**
+     * {@link #release()} が呼ばれるまで、以降のリクエストへの応答を保留する。
+     */
+    void hold() {
+        this.gate = new CountDownLatch(1);
+    }
+
+    /**
+     * 保留しているリクエストに応答する。
+     */
+    void release() {
+        this.gate.countDown();
+    }
+
+    /**
+     * 受け付けたリクエストの数。
+     *
+     * @return 受け付けたリクエストの数
+     */
+    int requestCount() {
+        return this.requests.get();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            this.requests.incrementAndGet();
+            try {
+                this.gate.await();
+                if (this.latencyMillis > 0) {
+                    Thread.sleep(this.latencyMillis);
+                }
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            if (this.failureStatus != 0) {
+                exchange.sendResponseHeaders(this.failureStatus, -1);
+                return;
+            }
+
+            final byte[] bytes = this.body(text(exchange.getRequestURI())).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Google CGI API for Japanese Input と同じ形式の応答を作成する。
+     *
+     * <p>{@code ,} で区切られた各文節を一つの文節とし、区切り文字そのものも文節として含める。</p>
+     *
+     * @param text 変換対象の文字列
+     * @return 応答の本文
+     */
+    private String body(final String text) {
+        final StringWriter body = new StringWriter();
+        try (JsonWriter json = new JsonWriter(body)) {
+            json.beginArray();
+            final String[] segments = text.split(SEGMENT_SEPARATOR, -1);
+            for (int i = 0; i < segments.length; i++) {
+                if (i > 0) {
+                    json.beginArray().value(SEGMENT_SEPARATOR).beginArray().value(SEGMENT_SEPARATOR).endArray().endArray();
+                }
+                if (!segments[i].isEmpty()) {
+                    final String candidate = this.conversions.getOrDefault(segments[i], segments[i]);
+                    json.beginArray().value(segments[i]).beginArray().value(candidate).endArray().endArray();
+                }
+            }
+            json.endArray();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return body.toString();
+    }
+
+    /**
+     * リクエストのURIから変換対象の文字列を取り出す。
+     *
+     * @param uri リクエストのURI
+     * @return 変換対象の文字列。指定されていない場合は空文字
+     */
+    private static String text(final URI uri) {
+        final String query = uri.getRawQuery();
+        if (query == null) {
+            return "";
+        }
+
+        for (final String parameter : query.split("&")) {
+            if (parameter.startsWith(TEXT_PARAMETER)) {
+                return URLDecoder.decode(parameter.substring(TEXT_PARAMETER.length()), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * 保留しているリクエストに応答した上で、待ち受けを停止する。
+     */
+    @Override
+    public void close() {
+        this.release();
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+}
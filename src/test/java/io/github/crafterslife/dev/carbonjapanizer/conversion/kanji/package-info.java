@@ -0,0 +1,4 @@
+/**
+ * ひらがなから漢字への変換関連クラスのテスト
+ */
+package io.github.crafterslife.dev.carbonjapanizer.conversion.kanji;